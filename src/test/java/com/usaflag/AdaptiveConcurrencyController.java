@@ -0,0 +1,122 @@
+package com.usaflag;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AIMD concurrency controller for SignupScheduler
+ * - Every interval it looks at the steps and flows finished since its last decision
+ * - p95 step latency (portal and browser steps; the OTP mailbox wait is left out) and failure ratio under target,
+ *   over at least signup.adaptive.min.flows.per.decision finished flows: add one worker slot (additive increase)
+ * - Either over target: cut the slots by the decrease factor at once, however few flows finished (multiplicative
+ *   decrease)
+ * - Every decision and its reason goes to the console and to a CSV, so the run's settling point is visible
+ */
+public class AdaptiveConcurrencyController {
+
+    private final SignupScheduler<?> scheduler;
+    private final StepMetrics metrics;
+    private final int minWorkers;
+    private final int maxWorkers;
+    private final long p95TargetMs;
+    private final double failureRatioTarget;
+    private final double decreaseFactor;
+    private final int minFlowsPerDecision;
+    private final long intervalMs;
+    private final String logCsvPath;
+
+    private ScheduledExecutorService ticker;
+    private long runStart;
+    private long lastDecisionAt;
+
+    public AdaptiveConcurrencyController(SignupScheduler<?> scheduler, StepMetrics metrics, String logCsvPath) {
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        this.logCsvPath = logCsvPath;
+        this.minWorkers = Math.max(1, SignupConfig.getInt("signup.adaptive.min.workers", 1));
+        this.maxWorkers = Math.max(minWorkers, SignupConfig.getInt("signup.adaptive.max.workers", 40));
+        this.p95TargetMs = SignupConfig.getInt("signup.adaptive.p95.step.target.ms", 10000);
+        this.failureRatioTarget = SignupConfig.getDouble("signup.adaptive.failure.ratio.target", 0.1);
+        this.decreaseFactor = SignupConfig.getDouble("signup.adaptive.decrease.factor", 0.5);
+        this.minFlowsPerDecision = Math.max(1, SignupConfig.getInt("signup.adaptive.min.flows.per.decision", 3));
+        this.intervalMs = SignupConfig.getInt("signup.adaptive.interval.seconds", 15) * 1000L;
+    }
+
+    public int initialWorkers() {
+        return Math.max(minWorkers, Math.min(maxWorkers, SignupConfig.getInt("signup.adaptive.initial.workers", 2)));
+    }
+
+    public void start() {
+        runStart = System.currentTimeMillis();
+        lastDecisionAt = runStart;
+        initializeCsv();
+        System.out.println("🎛️ Adaptive concurrency: " + minWorkers + ".." + maxWorkers + " workers, p95 step target "
+            + p95TargetMs + " ms, failure target " + String.format("%.0f%%", failureRatioTarget * 100));
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "signup-adaptive-controller"));
+        ticker.scheduleAtFixedRate(this::evaluate, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (ticker != null) ticker.shutdownNow();
+    }
+
+    private void evaluate() {
+        try {
+            StepMetrics.Snapshot s = metrics.snapshotSince(lastDecisionAt);
+            int current = scheduler.getWorkerSlots();
+            int next = current;
+            String reason;
+            if (s.p95StepMs > p95TargetMs) {
+                next = Math.max(minWorkers, (int) Math.floor(current * decreaseFactor));
+                reason = "p95 step " + s.p95StepMs + " ms > " + p95TargetMs + " ms";
+            } else if (s.failureRatio() > failureRatioTarget) {
+                next = Math.max(minWorkers, (int) Math.floor(current * decreaseFactor));
+                reason = "failure ratio " + String.format("%.2f", s.failureRatio()) + " > " + String.format("%.2f", failureRatioTarget);
+            } else if (s.flows < minFlowsPerDecision) {
+                reason = "waiting for samples (" + s.flows + " / " + minFlowsPerDecision + " flows)";
+            } else {
+                next = Math.min(maxWorkers, current + 1);
+                reason = "healthy (p95 step " + s.p95StepMs + " ms, failures " + s.failedFlows + "/" + s.flows + ")";
+            }
+
+            String decision = next > current ? "increase" : next < current ? "decrease" : "hold";
+            if (next != current) {
+                scheduler.setWorkerSlots(next);
+            }
+            if (next < current || s.flows >= minFlowsPerDecision) {
+                // Only fresh samples count towards the next decision
+                lastDecisionAt = System.currentTimeMillis();
+            }
+            System.out.println("🎛️ Concurrency " + current + " → " + next + " [" + decision + "]: " + reason);
+            appendCsv(next, s, decision, reason);
+        } catch (Exception e) {
+            System.err.println("⚠️ Adaptive controller evaluation failed: " + e.getMessage());
+        }
+    }
+
+    private void initializeCsv() {
+        if (new File(logCsvPath).exists()) return;
+        try (PrintWriter writer = new PrintWriter(new FileWriter(logCsvPath, true))) {
+            writer.println("Timestamp,ElapsedSeconds,Workers,P95StepMs,FailedFlows,Flows,Decision,Reason");
+        } catch (IOException e) {
+            System.err.println("Failed to initialize concurrency CSV: " + e.getMessage());
+        }
+    }
+
+    private void appendCsv(int workers, StepMetrics.Snapshot s, String decision, String reason) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(logCsvPath, true))) {
+            String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+            writer.println(ts + "," + ((System.currentTimeMillis() - runStart) / 1000) + "," + workers + ","
+                + s.p95StepMs + "," + s.failedFlows + "," + s.flows + "," + decision + ",\"" + reason.replace("\"", "'") + "\"");
+        } catch (IOException e) {
+            System.err.println("Failed to write concurrency CSV: " + e.getMessage());
+        }
+    }
+}
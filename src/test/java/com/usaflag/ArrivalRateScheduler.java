@@ -0,0 +1,110 @@
+package com.usaflag;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open-loop signup scheduler
+ * - Starts flows at a fixed arrival rate, regardless of how many are still running
+ * - A slower portal therefore gets the same offered load instead of less (no coordinated omission)
+ * - Flows that could not start on their scheduled time are reported as behind schedule
+ */
+public class ArrivalRateScheduler<T> {
+
+    private final double arrivalsPerMinute;
+    private final int maxInFlight;
+    private final long lagToleranceMs;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+
+    /**
+     * @param arrivalsPerMinute how many flows to start per minute
+     * @param maxInFlight       hard cap on concurrent browsers; arrivals beyond it wait and count as late
+     * @param lagToleranceMs    start delay after which an arrival counts as behind schedule
+     */
+    public ArrivalRateScheduler(double arrivalsPerMinute, int maxInFlight, long lagToleranceMs) {
+        if (arrivalsPerMinute <= 0) {
+            throw new IllegalArgumentException("arrivalsPerMinute must be > 0, got " + arrivalsPerMinute);
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be >= 1, got " + maxInFlight);
+        }
+        this.arrivalsPerMinute = arrivalsPerMinute;
+        this.maxInFlight = maxInFlight;
+        this.lagToleranceMs = lagToleranceMs;
+    }
+
+    /**
+     * Start one flow per user on the arrival schedule and block until all of them have finished.
+     */
+    public void run(List<T> users, SignupScheduler.Flow<T> flow) throws InterruptedException {
+        long intervalNanos = (long) (60_000_000_000L / arrivalsPerMinute);
+        Semaphore browsers = new Semaphore(maxInFlight);
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService pool = Executors.newCachedThreadPool(
+            r -> new Thread(r, "signup-arrival-" + threadCounter.incrementAndGet()));
+
+        int behindSchedule = 0;
+        long totalLagMs = 0;
+        long maxLagMs = 0;
+
+        System.out.println("🚀 Open-loop run: " + users.size() + " signups at "
+            + String.format("%.1f", arrivalsPerMinute) + "/min (cap " + maxInFlight + " in flight)");
+        long start = System.nanoTime();
+        for (int i = 0; i < users.size(); i++) {
+            long scheduledAt = start + i * intervalNanos;
+            long waitNanos = scheduledAt - System.nanoTime();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            browsers.acquire();
+
+            long lagMs = Math.max(0, (System.nanoTime() - scheduledAt) / 1_000_000);
+            totalLagMs += lagMs;
+            maxLagMs = Math.max(maxLagMs, lagMs);
+            if (lagMs > lagToleranceMs) {
+                behindSchedule++;
+                System.out.println("⏰ User index " + i + " started " + lagMs + " ms behind schedule ("
+                    + inFlight.get() + " in flight)");
+            }
+
+            final int index = i;
+            int running = inFlight.incrementAndGet();
+            peakInFlight.accumulateAndGet(running, Math::max);
+            pool.submit(() -> {
+                try {
+                    flow.run(users.get(index), index);
+                } catch (Throwable t) {
+                    System.err.println("❌ [" + Thread.currentThread().getName() + "] Flow failed for user index " + index + ": " + t.getMessage());
+                } finally {
+                    inFlight.decrementAndGet();
+                    completed.incrementAndGet();
+                    browsers.release();
+                }
+            });
+        }
+        long dispatchMs = (System.nanoTime() - start) / 1_000_000;
+
+        pool.shutdown();
+        while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+            System.out.println("⏳ Waiting for " + inFlight.get() + " in-flight signups...");
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        double offeredRate = dispatchMs > 0 ? (users.size() - 1) * 60000.0 / dispatchMs : 0;
+        System.out.println("============= 📊 Open-loop summary =============");
+        System.out.println("   Target rate:       " + String.format("%.1f", arrivalsPerMinute) + " signups/min");
+        System.out.println("   Achieved rate:     " + String.format("%.1f", offeredRate) + " signups/min");
+        System.out.println("   Started:           " + users.size() + " (completed " + completed.get() + ")");
+        System.out.println("   Behind schedule:   " + behindSchedule + " (> " + lagToleranceMs + " ms late)");
+        System.out.println("   Start lag avg/max: " + (users.isEmpty() ? 0 : totalLagMs / users.size()) + " / " + maxLagMs + " ms");
+        System.out.println("   Peak in flight:    " + peakInFlight.get());
+        System.out.println("   Total time:        " + (elapsedMs / 1000) + "s");
+    }
+}
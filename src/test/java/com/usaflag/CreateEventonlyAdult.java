@@ -47,6 +47,12 @@ import java.nio.file.Paths;
  */
 public class CreateEventonlyAdult {
     
+    /** Tournament page "Create Bracket" button; candidate order is learned by LocatorRegistry across runs. */
+    private static final LocatorChain CREATE_BRACKET_BUTTON = new LocatorChain("create bracket button")
+        .or("text", "//button[normalize-space()='Create Bracket' or contains(normalize-space(), 'Create Bracket')]")
+        .or("exact class", "//button[@class='text-sm hover:underline capitalize']")
+        .or("partial class", "//button[contains(@class, 'hover:underline') and contains(@class, 'capitalize')]");
+    
     private WebDriver driver;
     private WebDriverWait wait;
     private Properties config;
@@ -310,70 +316,12 @@ public class CreateEventonlyAdult {
             By coverPhotoInputLocator = By.xpath("//p[@class='text-sm font-medium text-gray-600' and normalize-space()='Upload Cover Photo']/ancestor::div[contains(@class,'border-dashed')][1]//input[@type='file']");
             uploadFile(coverPhotoInputLocator, coverPhotoPath, "Cover Photo");
             
-            // Scroll to and click on the Time Zone dropdown
-            WebElement timeZoneDropdown = wait.until(ExpectedConditions.elementToBeClickable(
-                By.xpath("//div[contains(@class,'flex items-center justify-between w-full mx-auto')]")));
-            ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({behavior: 'instant', block: 'center'});", timeZoneDropdown);
-            try {
-                Thread.sleep(500);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-            }
-            timeZoneDropdown.click();
-            System.out.println("✅ Time Zone dropdown clicked");
-            
-            // Wait for dropdown to open
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-            }
-            
-            // Enter timezone in search field and select
-            boolean timezoneSelected = false;
-            
-            // Try search input approach
+            // Select the Time Zone: open, search and pick in one script
             try {
-                WebElement searchInput = wait.until(ExpectedConditions.presenceOfElementLocated(
-                    By.xpath("//input[contains(@id, 'radix') or @placeholder='Search...']")));
-                searchInput.sendKeys("America/Chicago");
-                System.out.println("✅ Entered 'America/Chicago' in search field");
-                
-                // Wait for filtered results and click option
-                WebElement chicagoOption = wait.until(ExpectedConditions.elementToBeClickable(
-                    By.xpath("//span[normalize-space()='America/Chicago']")));
-                chicagoOption.click();
-                System.out.println("✅ Selected Time Zone: America/Chicago");
-                timezoneSelected = true;
-            } catch (Exception e1) {
-                System.out.println("⚠️ Search approach failed: " + e1.getMessage());
-            }
-            
-            // Fallback: Direct selection without search
-            if (!timezoneSelected) {
-            try {
-                WebElement chicagoOption = wait.until(ExpectedConditions.elementToBeClickable(
-                    By.xpath("//span[normalize-space()='America/Chicago']")));
-                chicagoOption.click();
-                    System.out.println("✅ Selected Time Zone: America/Chicago (Direct)");
-                    timezoneSelected = true;
-                } catch (Exception e2) {
-                    System.out.println("⚠️ Direct selection failed: " + e2.getMessage());
-                }
-            }
-            
-            // Final fallback: JavaScript click
-            if (!timezoneSelected) {
-                try {
-                    WebElement chicagoOption = driver.findElement(
-                        By.xpath("//*[contains(text(), 'America/Chicago')]"));
-                    ((JavascriptExecutor) driver).executeScript("arguments[0].click();", chicagoOption);
-                    System.out.println("✅ Selected Time Zone: America/Chicago (JavaScript)");
-                    timezoneSelected = true;
-                } catch (Exception e3) {
-                    System.out.println("❌ Failed to select timezone: " + e3.getMessage());
-                    throw new RuntimeException("Failed to select America/Chicago timezone");
-                }
+                ReactSelect.TIME_ZONE.select(driver, "America/Chicago");
+            } catch (Exception e) {
+                System.out.println("❌ Failed to select timezone: " + e.getMessage());
+                throw new RuntimeException("Failed to select America/Chicago timezone");
             }
             
             // Find the Location input field and enter "Chicago"
@@ -889,82 +837,11 @@ public class CreateEventonlyAdult {
                 Thread.currentThread().interrupt();
             }
             
-            // Find and click "Create Bracket" button with enhanced detection
-            WebElement createBracketButton = null;
-            boolean bracketButtonFound = false;
-            
-            // Method 1: Try with text-based locator (most stable)
+            // Find "Create Bracket": candidates race in ranked order, scrolling down if none is on screen
+            WebElement createBracketButton;
             try {
-                createBracketButton = new WebDriverWait(driver, Duration.ofSeconds(5))
-                    .until(ExpectedConditions.elementToBeClickable(
-                        By.xpath("//button[normalize-space()='Create Bracket' or contains(normalize-space(), 'Create Bracket')]")));
-                bracketButtonFound = true;
-                System.out.println("✅ Found 'Create Bracket' button using text (Method 1)");
-            } catch (Exception e) {
-                System.out.println("⚠️ Method 1 (text-based) failed, trying alternate approaches...");
-            }
-            
-            // Method 2: Try with exact class match
-            if (!bracketButtonFound) {
-            try {
-                createBracketButton = driver.findElement(
-                    By.xpath("//button[@class='text-sm hover:underline capitalize']"));
-                if (createBracketButton.isDisplayed()) {
-                    bracketButtonFound = true;
-                        System.out.println("✅ Found 'Create Bracket' button using class (Method 2)");
-                }
-        } catch (Exception e) {
-                    System.out.println("⚠️ Method 2 (class-based) failed, trying contains...");
-                }
-            }
-            
-            // Method 3: Try with contains class
-            if (!bracketButtonFound) {
-                try {
-                    createBracketButton = driver.findElement(
-                        By.xpath("//button[contains(@class, 'hover:underline') and contains(@class, 'capitalize')]"));
-                    if (createBracketButton.isDisplayed()) {
-                        bracketButtonFound = true;
-                        System.out.println("✅ Found 'Create Bracket' button (Method 3)");
-                    }
-                } catch (Exception e) {
-                    System.out.println("⚠️ Method 3 failed, scrolling to find...");
-                }
-            }
-            
-            // Method 4: Scroll down to find the button
-            if (!bracketButtonFound) {
-                for (int i = 0; i < 5; i++) {
-                    try {
-                        ((JavascriptExecutor) driver).executeScript("window.scrollBy(0, 300);");
-                        Thread.sleep(800);
-                        
-                        // Try text-based first after scroll
-                        try {
-                            createBracketButton = driver.findElement(
-                                By.xpath("//button[contains(normalize-space(), 'Create Bracket')]"));
-                            if (createBracketButton.isDisplayed()) {
-                                bracketButtonFound = true;
-                                System.out.println("✅ Found 'Create Bracket' button after scroll " + (i + 1));
-                                break;
-                            }
-                        } catch (Exception textEx) {
-                            // Fall back to class-based
-                        createBracketButton = driver.findElement(
-                            By.xpath("//button[contains(@class, 'hover:underline')]"));
-                        if (createBracketButton.isDisplayed()) {
-                            bracketButtonFound = true;
-                            System.out.println("✅ Found 'Create Bracket' button after scroll " + (i + 1));
-                            break;
-                            }
-                        }
-                    } catch (Exception e) {
-                        // Continue scrolling
-                    }
-                }
-            }
-            
-            if (!bracketButtonFound) {
+                createBracketButton = CREATE_BRACKET_BUTTON.find(driver, Duration.ofSeconds(5), 5, 300);
+            } catch (org.openqa.selenium.TimeoutException e) {
                 System.out.println("❌ Create Bracket button not found");
                 throw new RuntimeException("Create Bracket button not found");
             }
@@ -2406,6 +2283,7 @@ public class CreateEventonlyAdult {
      */
     @AfterClass
     public void tearDown() {
+        LocatorRegistry.save();
         if (driver != null) {
             System.out.println("🔚 Closing browser...");
             // Uncomment the line below if you want to close the browser after tests
@@ -251,70 +251,12 @@ public class CreateEventonlyYouth {
             By coverPhotoInputLocator = By.xpath("//p[@class='text-sm font-medium text-gray-600' and normalize-space()='Upload Cover Photo']/ancestor::div[contains(@class,'border-dashed')][1]//input[@type='file']");
             uploadFile(coverPhotoInputLocator, coverPhotoPath, "Cover Photo");
             
-            // Scroll to and click on the Time Zone dropdown
-            WebElement timeZoneDropdown = wait.until(ExpectedConditions.elementToBeClickable(
-                By.xpath("//div[contains(@class,'flex items-center justify-between w-full mx-auto')]")));
-            ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({behavior: 'instant', block: 'center'});", timeZoneDropdown);
+            // Select the Time Zone: open, search and pick in one script
             try {
-                Thread.sleep(500);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-            }
-            timeZoneDropdown.click();
-            System.out.println("✅ Time Zone dropdown clicked");
-            
-            // Wait for dropdown to open and search field to appear
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-            }
-            
-            // Enter timezone in search field and select
-            boolean timezoneSelected = false;
-            
-            // Try search input approach
-            try {
-                WebElement searchInput = wait.until(ExpectedConditions.presenceOfElementLocated(
-                    By.xpath("//input[contains(@id, 'radix') or @placeholder='Search...']")));
-                searchInput.sendKeys("America/Chicago");
-                System.out.println("✅ Entered 'America/Chicago' in search field");
-                
-                // Wait for filtered results and click option
-                WebElement chicagoOption = wait.until(ExpectedConditions.elementToBeClickable(
-                    By.xpath("//span[normalize-space()='America/Chicago']")));
-                chicagoOption.click();
-                System.out.println("✅ Selected Time Zone: America/Chicago");
-                timezoneSelected = true;
-            } catch (Exception e1) {
-                System.out.println("⚠️ Search approach failed: " + e1.getMessage());
-            }
-            
-            // Fallback: Direct selection without search
-            if (!timezoneSelected) {
-            try {
-                WebElement chicagoOption = wait.until(ExpectedConditions.elementToBeClickable(
-                    By.xpath("//span[normalize-space()='America/Chicago']")));
-                chicagoOption.click();
-                    System.out.println("✅ Selected Time Zone: America/Chicago (Direct)");
-                    timezoneSelected = true;
-                } catch (Exception e2) {
-                    System.out.println("⚠️ Direct selection failed: " + e2.getMessage());
-                }
-            }
-            
-            // Final fallback: JavaScript click
-            if (!timezoneSelected) {
-                try {
-                    WebElement chicagoOption = driver.findElement(
-                        By.xpath("//*[contains(text(), 'America/Chicago')]"));
-                    ((JavascriptExecutor) driver).executeScript("arguments[0].click();", chicagoOption);
-                    System.out.println("✅ Selected Time Zone: America/Chicago (JavaScript)");
-                    timezoneSelected = true;
-                } catch (Exception e3) {
-                    System.out.println("❌ Failed to select timezone: " + e3.getMessage());
-                    throw new RuntimeException("Failed to select America/Chicago timezone");
-                }
+                ReactSelect.TIME_ZONE.select(driver, "America/Chicago");
+            } catch (Exception e) {
+                System.out.println("❌ Failed to select timezone: " + e.getMessage());
+                throw new RuntimeException("Failed to select America/Chicago timezone");
             }
             
             // Find the Location input field and enter "Chicago"
@@ -0,0 +1,120 @@
+package com.usaflag;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Post-signup dashboard check in one script evaluation
+ * - Evaluates every signal at once: "Pending Approval" (youth), name in the text-2xl heading,
+ *   name anywhere, email anywhere; only rendered elements count
+ * - The script keeps watching DOM changes until a signal shows up or signup.verify.budget.ms
+ *   (default 1000) has passed, so a failed verification costs the budget and not one implicit wait per XPath
+ * - Returns a Result with every signal, the first match in the old cascade's priority order and the time taken
+ */
+public final class DashboardProbe {
+
+    private static final long BUDGET_MS = SignupConfig.getInt("signup.verify.budget.ms", 1000);
+
+    /**
+     * Outcome of one probe: which signals were visible, in priority order.
+     */
+    public static final class Result {
+        private final Map<String, Boolean> signals;
+        private final long elapsedMs;
+
+        private Result(Map<String, Boolean> signals, long elapsedMs) {
+            this.signals = signals;
+            this.elapsedMs = elapsedMs;
+        }
+
+        public boolean isVerified() { return getMatch() != null; }
+        public long getElapsedMs() { return elapsedMs; }
+        public Map<String, Boolean> getSignals() { return signals; }
+
+        /** The highest-priority visible signal, or null. */
+        public String getMatch() {
+            for (Map.Entry<String, Boolean> e : signals.entrySet()) {
+                if (Boolean.TRUE.equals(e.getValue())) return e.getKey();
+            }
+            return null;
+        }
+
+        public boolean isPendingApproval() {
+            return Boolean.TRUE.equals(signals.get("pending approval"));
+        }
+
+        @Override
+        public String toString() {
+            return signals + " in " + elapsedMs + " ms";
+        }
+    }
+
+    private static final String PROBE_SCRIPT =
+        "var checks = arguments[0], budgetMs = arguments[1], done = arguments[arguments.length - 1];"
+            + " function visible(x) { var r = document.evaluate(x, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "   for (var i = 0; i < r.snapshotLength; i++) { var n = r.snapshotItem(i);"
+            + "     if (n.getClientRects().length > 0 && getComputedStyle(n).visibility !== 'hidden') return true; }"
+            + "   return false; }"
+            + " function probe() { var out = {}, any = false;"
+            + "   for (var i = 0; i < checks.length; i++) { var hit = visible(checks[i][1]); out[checks[i][0]] = hit; any = any || hit; }"
+            + "   return any ? out : null; }"
+            + " var found = probe(); if (found) { done(found); return; }"
+            + " var timer, obs = new MutationObserver(function () { var r = probe(); if (r) { obs.disconnect(); clearTimeout(timer); done(r); } });"
+            + " obs.observe(document.documentElement, { childList: true, subtree: true, characterData: true, attributes: true });"
+            + " timer = setTimeout(function () { obs.disconnect(); var r = {};"
+            + "   for (var i = 0; i < checks.length; i++) r[checks[i][0]] = false; done(r); }, budgetMs);";
+
+    private DashboardProbe() {}
+
+    /**
+     * Probe the dashboard for the signed-up user.
+     *
+     * @param pendingApproval also accept the youth "Pending Approval" page
+     */
+    public static Result probe(WebDriver driver, String firstName, String lastName, String email, boolean pendingApproval) {
+        String fullName = firstName + " " + lastName;
+        Map<String, String> checks = new LinkedHashMap<>();
+        if (pendingApproval) {
+            checks.put("pending approval", "//*[contains(normalize-space(text()), 'Pending Approval')]");
+        }
+        checks.put("full name in heading", heading(fullName));
+        checks.put("first name in heading", heading(firstName));
+        checks.put("last name in heading", heading(lastName));
+        checks.put("full name on dashboard", "//*[normalize-space(text())=" + literal(fullName) + "]");
+        checks.put("first name on dashboard", "//*[normalize-space(text())=" + literal(firstName) + "]");
+        checks.put("last name on dashboard", "//*[normalize-space(text())=" + literal(lastName) + "]");
+        checks.put("email on dashboard", "//*[normalize-space(text())=" + literal(email) + "]");
+
+        List<List<String>> args = new ArrayList<>();
+        for (Map.Entry<String, String> e : checks.entrySet()) args.add(List.of(e.getKey(), e.getValue()));
+
+        long start = System.currentTimeMillis();
+        Map<String, Boolean> signals = new LinkedHashMap<>();
+        try {
+            Object raw = ((JavascriptExecutor) driver).executeAsyncScript(PROBE_SCRIPT, args, BUDGET_MS);
+            Map<?, ?> result = raw instanceof Map ? (Map<?, ?>) raw : Map.of();
+            for (String label : checks.keySet()) signals.put(label, Boolean.TRUE.equals(result.get(label)));
+        } catch (WebDriverException e) {
+            System.out.println("⚠️ Dashboard probe failed: " + e.getMessage());
+            for (String label : checks.keySet()) signals.put(label, false);
+        }
+        return new Result(signals, System.currentTimeMillis() - start);
+    }
+
+    private static String heading(String text) {
+        return "//h2[contains(@class, 'text-2xl')][contains(normalize-space(text()), " + literal(text) + ")]";
+    }
+
+    /** XPath string literal for any text, including names with apostrophes; shared by every XPath built from data. */
+    static String literal(String text) {
+        if (!text.contains("'")) return "'" + text + "'";
+        if (!text.contains("\"")) return "\"" + text + "\"";
+        return "concat('" + text.replace("'", "', \"'\", '") + "')";
+    }
+}
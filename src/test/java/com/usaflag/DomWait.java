@@ -0,0 +1,100 @@
+package com.usaflag;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+
+/**
+ * Element waits that run inside the browser instead of polling it over WebDriver
+ * - One executeAsyncScript call installs a MutationObserver and returns when an element matching the XPath
+ *   is rendered, or when the deadline passes: one round trip per wait instead of one per 500 ms poll
+ * - Timeouts come from StepTimeouts ("dom/<step>"), like the other named waits
+ * - signup.wait.mode=poll (or a failing script) falls back to a regular WebDriverWait
+ */
+public final class DomWait {
+
+    private static final boolean OBSERVER = !"poll".equalsIgnoreCase(SignupConfig.getString("signup.wait.mode", "observer"));
+    /** WebDriver's default script timeout; longer waits raise it first. */
+    private static final Duration SCRIPT_TIMEOUT = Duration.ofSeconds(30);
+    private static final long SCRIPT_MARGIN_MS = 2000;
+
+    private static final String OBSERVE_SCRIPT =
+        "var xpath = arguments[0], timeoutMs = arguments[1], done = arguments[arguments.length - 1];"
+            + " function find() {"
+            + "   var n = document.evaluate(xpath, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "   return n !== null && n.getClientRects().length > 0 ? n : null;"
+            + " }"
+            + " var found = find();"
+            + " if (found !== null) { done(found); return; }"
+            + " var timer, observer = new MutationObserver(function () {"
+            + "   var n = find();"
+            + "   if (n !== null) { observer.disconnect(); clearTimeout(timer); done(n); }"
+            + " });"
+            + " observer.observe(document.documentElement, { childList: true, subtree: true, attributes: true });"
+            + " timer = setTimeout(function () { observer.disconnect(); done(find()); }, timeoutMs);";
+
+    private DomWait() {}
+
+    /**
+     * Wait for an element matching the XPath to be rendered.
+     *
+     * @param step           name the timeout is learned under, e.g. "country option"
+     * @param defaultTimeout timeout until StepTimeouts has learned the step
+     * @throws TimeoutException if no element appeared in time
+     */
+    public static WebElement appear(WebDriver driver, String step, String xpath, Duration defaultTimeout) {
+        String key = "dom/" + step;
+        Duration timeout = StepTimeouts.timeoutFor(key, defaultTimeout);
+        long start = System.currentTimeMillis();
+        WebElement element = OBSERVER ? observe(driver, xpath, timeout) : null;
+        if (element == null) {
+            long left = timeout.toMillis() - (System.currentTimeMillis() - start);
+            if (OBSERVER && left <= 0) {
+                StepTimeouts.recordTimeout(key);
+                throw new TimeoutException("Element did not appear within " + timeout.toMillis() + " ms: " + xpath);
+            }
+            try {
+                element = new WebDriverWait(driver, Duration.ofMillis(Math.max(left, 1)))
+                    .until(ExpectedConditions.visibilityOfElementLocated(By.xpath(xpath)));
+            } catch (TimeoutException e) {
+                StepTimeouts.recordTimeout(key);
+                throw e;
+            }
+        }
+        StepTimeouts.record(key, System.currentTimeMillis() - start);
+        return element;
+    }
+
+    /** Wait for the element with the given id, e.g. "otp-input-0". */
+    public static WebElement appearById(WebDriver driver, String step, String id, Duration defaultTimeout) {
+        return appear(driver, step, "//*[@id='" + id + "']", defaultTimeout);
+    }
+
+    /**
+     * The element, or null when the deadline passed or the script could not run (the caller then polls).
+     */
+    private static WebElement observe(WebDriver driver, String xpath, Duration timeout) {
+        // Long observer waits need a longer script timeout; the session's own value is put back afterwards
+        Duration scriptTimeout = null;
+        try {
+            if (timeout.toMillis() + SCRIPT_MARGIN_MS > SCRIPT_TIMEOUT.toMillis()) {
+                scriptTimeout = driver.manage().timeouts().getScriptTimeout();
+                driver.manage().timeouts().scriptTimeout(timeout.plusMillis(SCRIPT_MARGIN_MS));
+            }
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(OBSERVE_SCRIPT, xpath, timeout.toMillis());
+            return result instanceof WebElement ? (WebElement) result : null;
+        } catch (WebDriverException e) {
+            System.out.println("⚠️ MutationObserver wait failed, polling instead: " + e.getMessage());
+            return null;
+        } finally {
+            if (scriptTimeout != null) driver.manage().timeouts().scriptTimeout(scriptTimeout);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.usaflag;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of long-lived Chrome sessions for the concurrent signup flows
+ * - borrow() hands out an idle session or starts a new one
+ * - release() clears cookies, localStorage, sessionStorage and extra tabs so the next user starts clean
+ * - Sessions are recycled after driver.pool.max.flows.per.session flows or when the page heap
+ *   exceeds driver.pool.max.heap.mb
+ * - warmUp() starts a fleet in parallel before the measured phase so Chrome startup is logged separately
+ * - kill() force-quits a hung session's chromedriver and Chrome process tree (used by FlowWatchdog)
+ */
+public class DriverPool {
+
+    private static final Object DRIVER_SETUP_LOCK = new Object();
+    private static volatile boolean driverBinaryReady = false;
+
+    private static final Object SERVICE_START_LOCK = new Object();
+
+    private static final class Session {
+        private final WebDriver driver;
+        private final ProcessHandle driverProcess; // chromedriver; Chrome runs as its descendants
+        private int flows;
+
+        private Session(WebDriver driver, ProcessHandle driverProcess) {
+            this.driver = driver;
+            this.driverProcess = driverProcess;
+        }
+    }
+
+    private final int maxFlowsPerSession;
+    private final long maxHeapBytes;
+    private final List<String> originsToClear;
+
+    private final LinkedBlockingDeque<Session> idle = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, Session> sessions = new ConcurrentHashMap<>();
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger reused = new AtomicInteger();
+    private final AtomicInteger borrowed = new AtomicInteger();
+    private final AtomicInteger recycled = new AtomicInteger();
+
+    /**
+     * @param originUrls URLs whose origins get their storage wiped between users (e.g. the portal; mail is read
+     *                   over HTTP or from the SMTP sink, never in a browser tab)
+     */
+    public DriverPool(String... originUrls) {
+        this(SignupConfig.getInt("driver.pool.max.flows.per.session", 25),
+             SignupConfig.getInt("driver.pool.max.heap.mb", 512),
+             originUrls);
+    }
+
+    public DriverPool(int maxFlowsPerSession, int maxHeapMb, String... originUrls) {
+        this.maxFlowsPerSession = Math.max(1, maxFlowsPerSession);
+        this.maxHeapBytes = maxHeapMb * 1024L * 1024L;
+        this.originsToClear = new ArrayList<>();
+        for (String url : originUrls) {
+            URI uri = URI.create(url);
+            originsToClear.add(uri.getScheme() + "://" + uri.getHost());
+        }
+    }
+
+    /**
+     * Start a fresh Chrome session configured like the original per-flow driver, remembering the
+     * chromedriver process so a hung session can be killed with its whole Chrome process tree.
+     */
+    private static Session startSession() {
+        if (!driverBinaryReady) {
+            synchronized (DRIVER_SETUP_LOCK) {
+                if (!driverBinaryReady) {
+                    WebDriverManager.chromedriver().setup();
+                    driverBinaryReady = true;
+                }
+            }
+        }
+        ChromeDriverService service = ChromeDriverService.createDefaultService();
+        ProcessHandle driverProcess;
+        // Services start one at a time so the new child process can be told apart from its siblings
+        synchronized (SERVICE_START_LOCK) {
+            Set<Long> before = childPids();
+            try {
+                service.start();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to start chromedriver: " + e.getMessage(), e);
+            }
+            driverProcess = ProcessHandle.current().children()
+                .filter(p -> !before.contains(p.pid()))
+                .findFirst()
+                .orElse(null);
+        }
+        ChromeOptions options = new ChromeOptions();
+        WebDriver driver = new ChromeDriver(service, options);
+        driver.manage().window().maximize();
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+        return new Session(driver, driverProcess);
+    }
+
+    private static Set<Long> childPids() {
+        Set<Long> pids = new HashSet<>();
+        ProcessHandle.current().children().forEach(p -> pids.add(p.pid()));
+        return pids;
+    }
+
+    /**
+     * Launch the given number of Chrome sessions in parallel, load the URL in each and park them as idle,
+     * ready for the first users. Per-session startup and first-load times go to warmupCsvPath.
+     */
+    public void warmUp(int count, String url, String warmupCsvPath) {
+        if (count <= 0) return;
+        System.out.println("🔥 Warming up " + count + " browser sessions on " + url);
+        initializeWarmupCsv(warmupCsvPath);
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService starters = Executors.newFixedThreadPool(count,
+            r -> new Thread(r, "driver-warmup-" + threadCounter.incrementAndGet()));
+        List<Future<Session>> pending = new ArrayList<>();
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            final int sessionNo = i + 1;
+            pending.add(starters.submit(() -> {
+                long t0 = System.currentTimeMillis();
+                Session session = startSession();
+                WebDriver driver = session.driver;
+                long startupMs = System.currentTimeMillis() - t0;
+                sessions.put(driver, session);
+                created.incrementAndGet();
+                long t1 = System.currentTimeMillis();
+                try {
+                    driver.get(url);
+                } catch (RuntimeException e) {
+                    discard(session);
+                    throw e;
+                }
+                long firstLoadMs = System.currentTimeMillis() - t1;
+                appendWarmup(warmupCsvPath, sessionNo, startupMs, firstLoadMs);
+                return session;
+            }));
+        }
+        int ready = 0;
+        for (Future<Session> f : pending) {
+            try {
+                idle.offerLast(f.get());
+                ready++;
+            } catch (Exception e) {
+                System.err.println("⚠️ Warm-up session failed: " + e.getMessage());
+            }
+        }
+        starters.shutdown();
+        System.out.println("✅ Warm-up done: " + ready + " / " + count + " sessions ready in "
+            + (System.currentTimeMillis() - start) + " ms (logged to " + warmupCsvPath + ")");
+    }
+
+    public WebDriver borrow() {
+        Session session = idle.pollFirst();
+        if (session != null) {
+            reused.incrementAndGet();
+        } else {
+            session = startSession();
+            sessions.put(session.driver, session);
+            created.incrementAndGet();
+        }
+        session.flows++;
+        borrowed.incrementAndGet();
+        return session.driver;
+    }
+
+    /**
+     * Return a session after a flow. Failed flows and sessions that reached their flow or memory
+     * limit are quit; everything else is reset and parked for the next user.
+     */
+    public void release(WebDriver driver, boolean flowSucceeded) {
+        if (driver == null) return;
+        Session session = sessions.get(driver);
+        if (session == null) {
+            quietQuit(driver);
+            return;
+        }
+        String recycleReason = null;
+        if (!flowSucceeded) {
+            recycleReason = "flow failed";
+        } else if (session.flows >= maxFlowsPerSession) {
+            recycleReason = "reached " + maxFlowsPerSession + " flows";
+        } else {
+            long heap = pageHeapBytes(driver);
+            if (heap > maxHeapBytes) {
+                recycleReason = "page heap " + (heap / (1024 * 1024)) + " MB";
+            }
+        }
+        if (recycleReason == null) {
+            try {
+                resetState(driver);
+                idle.offerFirst(session);
+                return;
+            } catch (Exception e) {
+                recycleReason = "reset failed: " + e.getMessage();
+            }
+        }
+        System.out.println("♻️ Recycling browser session after " + session.flows + " flow(s): " + recycleReason);
+        recycled.incrementAndGet();
+        discard(session);
+    }
+
+    /**
+     * Force-kill a hung session: chromedriver and every Chrome process below it. The session is dropped
+     * from the pool, so the flow's later release() only attempts a quit.
+     */
+    public void kill(WebDriver driver) {
+        Session session = driver == null ? null : sessions.remove(driver);
+        if (session == null || session.driverProcess == null) return;
+        recycled.incrementAndGet();
+        ProcessHandle root = session.driverProcess;
+        long killed = root.descendants().filter(ProcessHandle::destroyForcibly).count();
+        if (root.destroyForcibly()) killed++;
+        System.out.println("🔪 Killed browser session process tree (chromedriver pid " + root.pid() + ", "
+            + killed + " processes)");
+    }
+
+    /**
+     * Quit every idle session and print pool statistics. Borrowed sessions are quit by their release().
+     */
+    public void shutdown() {
+        Session session;
+        while ((session = idle.pollFirst()) != null) {
+            discard(session);
+        }
+        int total = created.get();
+        System.out.println("📊 Driver pool: " + total + " sessions started, " + reused.get() + " idle hits, "
+            + recycled.get() + " recycled, " + String.format("%.1f", total > 0 ? (double) borrowed.get() / total : 0)
+            + " flows per session");
+    }
+
+    /**
+     * Close extra tabs, wipe cookies and web storage, and park the remaining tab on about:blank.
+     */
+    private void resetState(WebDriver driver) {
+        List<String> handles = new ArrayList<>(driver.getWindowHandles());
+        String primary = handles.get(0);
+        for (String handle : handles.subList(1, handles.size())) {
+            driver.switchTo().window(handle);
+            driver.close();
+        }
+        driver.switchTo().window(primary);
+        driver.switchTo().defaultContent();
+
+        try {
+            ((JavascriptExecutor) driver).executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+        } catch (Exception ignore) {
+            // about:blank and error pages have no storage
+        }
+        driver.manage().deleteAllCookies();
+        if (driver instanceof ChromeDriver) {
+            ChromeDriver chrome = (ChromeDriver) driver;
+            chrome.executeCdpCommand("Network.clearBrowserCookies", new HashMap<>());
+            for (String origin : originsToClear) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("origin", origin);
+                params.put("storageTypes", "all");
+                chrome.executeCdpCommand("Storage.clearDataForOrigin", params);
+            }
+        }
+        driver.get("about:blank");
+        NavigationWait.reset(driver);
+    }
+
+    /**
+     * Chrome's performance.memory for the current page; 0 when unavailable.
+     */
+    private static long pageHeapBytes(WebDriver driver) {
+        try {
+            Object value = ((JavascriptExecutor) driver).executeScript(
+                "return window.performance && performance.memory ? performance.memory.totalJSHeapSize : 0;");
+            return value instanceof Number ? ((Number) value).longValue() : 0;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static synchronized void initializeWarmupCsv(String path) {
+        File file = new File(path);
+        if (file.exists()) return;
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file, true))) {
+            writer.println("Timestamp,Session,StartupMs,FirstLoadMs");
+        } catch (IOException e) {
+            System.err.println("Failed to initialize warm-up CSV: " + e.getMessage());
+        }
+    }
+
+    private static synchronized void appendWarmup(String path, int sessionNo, long startupMs, long firstLoadMs) {
+        System.out.println("🔥 Session " + sessionNo + " ready: startup " + startupMs + " ms, first load " + firstLoadMs + " ms");
+        try (PrintWriter writer = new PrintWriter(new FileWriter(path, true))) {
+            String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+            writer.println(ts + "," + sessionNo + "," + startupMs + "," + firstLoadMs);
+        } catch (IOException e) {
+            System.err.println("Failed to write warm-up CSV: " + e.getMessage());
+        }
+    }
+
+    private void discard(Session session) {
+        sessions.remove(session.driver);
+        quietQuit(session.driver);
+    }
+
+    private static void quietQuit(WebDriver driver) {
+        try { driver.quit(); } catch (Exception ignore) {}
+    }
+}
@@ -1,9 +1,14 @@
 package com.usaflag.Extra;
 
+import com.usaflag.MailTemplate;
+import com.usaflag.MailboxClient;
+import com.usaflag.ReadyWait;
+import com.usaflag.SignupReports;
 import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WindowType;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -61,7 +66,7 @@ public class ParentaddYouth {
             System.out.println("✅ Current URL: " + currentUrl);
             
             // Wait for page to load completely
-            Thread.sleep(3000);
+            ReadyWait.await(driver, "load login page", 3000, ReadyWait.present("//input[@id='email']"));
             
             // Find email field and enter email
             System.out.println("📧 Entering parent email: " + PARENT_EMAIL);
@@ -93,8 +98,8 @@ public class ParentaddYouth {
             submitButton.click();
             System.out.println("✅ Login submit button clicked successfully");
             
-            // Wait for page to load after login
-            Thread.sleep(5000);
+            // Wait for the dashboard menu after login
+            ReadyWait.await(driver, "open dashboard after login", 5000, ReadyWait.present("//a[contains(@href, '/')]//li[contains(text(), 'dashboard')]"));
             
             // Verify login success by checking for dashboard elements
             boolean dashboardFound = false;
@@ -121,8 +126,8 @@ public class ParentaddYouth {
                             clickableElement.click();
                             System.out.println("✅ Successfully clicked on the specified element");
                             
-                            // Wait a moment after clicking
-                            Thread.sleep(2000);
+                            // Wait for the profile page
+                            ReadyWait.await(driver, "open profile", 2000, ReadyWait.present("//h1[contains(text(), 'Profile') or contains(text(), 'profile')]"));
                             
                             // Get current URL to see if anything changed
                             String urlAfterClick = driver.getCurrentUrl();
@@ -149,8 +154,8 @@ public class ParentaddYouth {
                                             linkedAccountButton.click();
                                             System.out.println("✅ Successfully clicked on Linked Account tab button");
                                             
-                                            // Wait a moment after clicking
-                                            Thread.sleep(2000);
+                                            // Wait for the Linked Account tab content
+                                            ReadyWait.await(driver, "open linked accounts tab", 2000, ReadyWait.clickable("//button[@class='bg-[#0F2D52] text-white px-4 py-2 rounded-md text-sm']"));
                                             
                                             // Get current URL to see if anything changed
                                             String urlAfterLinkedAccountClick = driver.getCurrentUrl();
@@ -168,8 +173,8 @@ public class ParentaddYouth {
                                                     addChildrenButton.click();
                                                     System.out.println("✅ Successfully clicked on Add Children's Account button");
                                                     
-                                                    // Wait a moment after clicking
-                                                    Thread.sleep(2000);
+                                                    // Wait for the Add Children's Account modal
+                                                    ReadyWait.await(driver, "open add children modal", 2000, ReadyWait.clickable("//button[normalize-space()='Add new Child']"));
                                                     
                                                     // Get current URL to see if anything changed
                                                     String urlAfterAddChildrenClick = driver.getCurrentUrl();
@@ -187,8 +192,8 @@ public class ParentaddYouth {
                                                             addNewChildButton.click();
                                                             System.out.println("✅ Successfully clicked on 'Add new Child' button");
                                                             
-                                                            // Wait a moment after clicking
-                                                            Thread.sleep(2000);
+                                                            // Wait for the Add new Child form
+                                                            ReadyWait.await(driver, "open add child form", 2000, ReadyWait.present("//input[@id='emailAddress']"));
                                                             
                                                             // Get current URL to see if anything changed
                                                             String urlAfterAddNewChildClick = driver.getCurrentUrl();
@@ -241,120 +246,44 @@ public class ParentaddYouth {
                                                                 childSubmitButton.click();
                                                                 System.out.println("✅ Submit button clicked successfully");
                                                                 
-                                                                // Wait a moment after submitting
-                                                                Thread.sleep(3000);
+                                                                // Wait for the Add new Child form to close
+                                                                ReadyWait.await(driver, "submit add child form", 3000, ReadyWait.absent("//input[@id='emailAddress']"));
                                                                 
                                                                 // Get current URL to see if anything changed
                                                                 String urlAfterSubmit = driver.getCurrentUrl();
                                                                 System.out.println("✅ Current URL after submitting form: " + urlAfterSubmit);
                                                                 
-                                                                // Open YOPmail in a separate window to check youth email
-                                                                System.out.println("🔍 Opening YOPmail in a separate window...");
+                                                                // Read the youth invitation mail through the mailbox client instead of a YOPmail window
+                                                                System.out.println("🔍 Checking the youth invitation email...");
                                                                 try {
-                                                                    // Open YOPmail in a new window
-                                                                    ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("window.open('https://yopmail.com/', '_blank');");
-                                                                    System.out.println("✅ YOPmail opened in new window");
+                                                                    String invitation = MailboxClient.configured().awaitMessage("allan.dany100@yopmail.com",
+                                                                        "We are excited to invite you to join the", MailboxClient.DEFAULT_TIMEOUT);
+                                                                    System.out.println("✅ Text found: We are excited to invite you to join the");
                                                                     
-                                                                    // Switch to the new window
-                                                                    String originalWindow = driver.getWindowHandle();
-                                                                    for (String windowHandle : driver.getWindowHandles()) {
-                                                                        if (!windowHandle.equals(originalWindow)) {
-                                                                            driver.switchTo().window(windowHandle);
-                                                                            break;
-                                                                        }
-                                                                    }
-                                                                    System.out.println("✅ Switched to YOPmail window");
-                                                                    
-                                                                    // Wait for YOPmail page to load
-                                                                    Thread.sleep(3000);
-                                                                    
-                                                                    // Enter youth email in YOPmail login field
-                                                                    System.out.println("📧 Entering youth email in YOPmail: allan.dany100@yopmail.com");
-                                                                    WebElement yopmailLoginField = wait.until(ExpectedConditions.presenceOfElementLocated(
-                                                                        By.xpath("//input[@id='login']")
-                                                                    ));
-                                                                    yopmailLoginField.clear();
-                                                                    yopmailLoginField.sendKeys("allan.dany100");
-                                                                    System.out.println("✅ Youth email entered in YOPmail successfully");
-                                                                    
-                                                                    // Click on the check button
-                                                                    System.out.println("🔍 Clicking on YOPmail check button...");
-                                                                    WebElement yopmailCheckButton = wait.until(ExpectedConditions.elementToBeClickable(
-                                                                        By.xpath("//i[@class='material-icons-outlined f36']")
-                                                                    ));
-                                                                    yopmailCheckButton.click();
-                                                                    System.out.println("✅ YOPmail check button clicked successfully");
-                                                                    
-                                                                    // Wait a moment after clicking
-                                                                    Thread.sleep(3000);
-                                                                    
-                                                                    // Get current URL to see if anything changed
-                                                                    String yopmailUrl = driver.getCurrentUrl();
-                                                                    System.out.println("✅ Current YOPmail URL: " + yopmailUrl);
-                                                                    
-                                                                    // Find the email text "We are excited to invite you to join the"
-                                                                    System.out.println("🔍 Looking for email text...");
-                                                                    try {
-                                                                        WebElement emailText = wait.until(ExpectedConditions.presenceOfElementLocated(
-                                                                            By.xpath("//p[contains(text(),'We are excited to invite you to join the')]")
-                                                                        ));
-                                                                        if (emailText.isDisplayed()) {
-                                                                            System.out.println("✅ Text found: " + emailText.getText());
-                                                                        }
-                                                                    } catch (Exception textException) {
-                                                                        System.out.println("❌ Email text not found: " + textException.getMessage());
-                                                                    }
-                                                                    
-                                                                    // Find and click on the specific Sign Up Link using absolute XPath
-                                                                    System.out.println("🔍 Looking for Sign Up Link using specific XPath...");
-                                                                    try {
-                                                                        WebElement signUpLink = wait.until(ExpectedConditions.elementToBeClickable(
-                                                                            By.xpath("/html[1]/body[1]/main[1]/div[1]/div[1]/div[1]/table[1]/tbody[1]/tr[2]/td[1]/p[3]/a[1]")
-                                                                        ));
-                                                                        
-                                                                        if (signUpLink.isDisplayed()) {
-                                                                            System.out.println("✅ Sign Up Link found using specific XPath and visible");
-                                                                            
-                                                                            // Get the href attribute
-                                                                            String signUpUrl = signUpLink.getAttribute("href");
-                                                                            System.out.println("✅ Sign Up URL: " + signUpUrl);
-                                                                            
-                                                                            // Get the text content of the link
-                                                                            String linkText = signUpLink.getText();
-                                                                            System.out.println("✅ Link text: " + linkText);
-                                                                            
-                                                                            // Click on the Sign Up Link
-                                                                            signUpLink.click();
-                                                                            System.out.println("✅ Sign Up Link clicked successfully");
-                                                                            
-                                                                            // Wait a moment after clicking
-                                                                            Thread.sleep(2000);
-                                                                            
-                                                                        } else {
-                                                                            System.out.println("⚠️ Sign Up Link found but not visible");
+                                                                    // Find the Sign Up Link: the first link after the invitation text
+                                                                    System.out.println("🔍 Looking for Sign Up Link in the invitation...");
+                                                                    String signUpUrl = MailTemplate.YOUTH_INVITATION.extract(invitation);
+                                                                    if (signUpUrl != null) {
+                                                                        System.out.println("✅ Sign Up URL: " + signUpUrl);
+
+                                                                        // Follow the invitation the way the mail's link did: in its own window, then back to the portal
+                                                                        String originalWindow = driver.getWindowHandle();
+                                                                        driver.switchTo().newWindow(WindowType.WINDOW);
+                                                                        try {
+                                                                            driver.get(signUpUrl);
+                                                                            ReadyWait.await(driver, "open invitation sign up link", 2000, ReadyWait.routeLeft("about:blank"));
+                                                                            System.out.println("✅ Sign Up Link opened: " + driver.getTitle() + " (" + driver.getCurrentUrl() + ")");
+                                                                        } finally {
+                                                                            driver.switchTo().window(originalWindow);
+                                                                            System.out.println("✅ Switched back to original window");
                                                                         }
-                                                                        
-                                                                    } catch (Exception signUpLinkException) {
-                                                                        System.out.println("❌ Could not find or click Sign Up Link using specific XPath: " + signUpLinkException.getMessage());
-                                                                        System.out.println("⚠️ Continuing with the test despite Sign Up Link not found");
+                                                                    } else {
+                                                                        System.out.println("⚠️ Sign Up Link not found in the invitation");
                                                                     }
                                                                     
-                                                                    // Switch back to original window
-                                                                    driver.switchTo().window(originalWindow);
-                                                                    System.out.println("✅ Switched back to original window");
-                                                                    
-                                                                } catch (Exception yopmailException) {
-                                                                    System.out.println("❌ Error with YOPmail operations: " + yopmailException.getMessage());
-                                                                    System.out.println("⚠️ Continuing with the test despite YOPmail error");
-                                                                    
-                                                                    // Try to switch back to original window if possible
-                                                                    try {
-                                                                        String originalWindow = driver.getWindowHandle();
-                                                                        driver.switchTo().window(originalWindow);
-                                                                        System.out.println("✅ Switched back to original window after error");
-                                                                    } catch (Exception switchException) {
-                                                                        System.out.println("⚠️ Could not switch back to original window");
-                                                                    }
+                                                                } catch (Exception mailException) {
+                                                                    System.out.println("❌ Error reading the invitation email: " + mailException.getMessage());
+                                                                    System.out.println("⚠️ Continuing with the test despite mailbox error");
                                                                 }
                                                                 
                                                             } catch (Exception formException) {
@@ -447,6 +376,7 @@ public class ParentaddYouth {
         System.out.println("🔍 Closing browser to prevent extra windows...");
         System.out.println("✅ Tests completed - Browser will be closed automatically");
         System.out.println("📧 Parent email used: " + PARENT_EMAIL);
+        SignupReports.printAndSave();
         
         // Close the browser automatically to prevent extra windows
         if (driver != null) {
@@ -0,0 +1,168 @@
+package com.usaflag;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hung-flow watchdog for concurrent signups
+ * - Every flow registers with a deadline and sends a heartbeat at each step
+ * - A flow that passes its deadline, or sits in one step longer than the stall limit, is timed out:
+ *   its browser is force-killed (chromedriver plus the Chrome process tree) and its thread interrupted
+ * - The blocked WebDriver call then fails at once, so the worker slot frees up in seconds
+ */
+public class FlowWatchdog {
+
+    /**
+     * One watched flow. Created on the flow's thread; heartbeats and close() come from whichever thread
+     * currently owns the flow (see handOff() and park() for staged pipelines).
+     */
+    public final class Watch {
+        private final String label;
+        private Thread flowThread;
+        private final long deadlineAt;
+        private volatile WebDriver driver;
+        private volatile String step = "starting";
+        private volatile long lastHeartbeatAt;
+        private volatile String timeoutReason;
+        private boolean closed;
+
+        private Watch(String label, long deadlineAt) {
+            this.label = label;
+            this.flowThread = Thread.currentThread();
+            this.deadlineAt = deadlineAt;
+            this.lastHeartbeatAt = System.currentTimeMillis();
+        }
+
+        /**
+         * Attach the flow's browser so the watchdog can kill it.
+         */
+        public void attach(WebDriver driver) {
+            this.driver = driver;
+        }
+
+        public void heartbeat(String step) {
+            this.step = step;
+            this.lastHeartbeatAt = System.currentTimeMillis();
+        }
+
+        /**
+         * Make the calling thread the flow's owner (a pipeline stage picked the flow up). A watch that timed
+         * out while parked stays timed out; the stage should fail the flow straight away.
+         */
+        public synchronized void handOff() {
+            flowThread = Thread.currentThread();
+        }
+
+        /**
+         * Detach the flow from the calling thread before queueing it for the next stage, so a timeout while
+         * queued kills the browser without interrupting whatever the stage thread runs next.
+         */
+        public void park() {
+            synchronized (this) {
+                flowThread = null;
+            }
+            if (timeoutReason != null) {
+                Thread.interrupted();
+            }
+        }
+
+        public boolean isTimedOut() {
+            return timeoutReason != null;
+        }
+
+        public String getTimeoutReason() {
+            return timeoutReason;
+        }
+
+        /**
+         * Stop watching; call from the flow's finally block. Clears an interrupt the watchdog may have left.
+         */
+        public void close() {
+            synchronized (this) {
+                closed = true;
+                watches.remove(this);
+            }
+            if (timeoutReason != null) {
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private final DriverPool pool;
+    private final long flowDeadlineMs;
+    private final long stallMs;
+    private final Set<Watch> watches = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService checker;
+
+    public FlowWatchdog(DriverPool pool) {
+        this(pool,
+             SignupConfig.getInt("signup.flow.deadline.seconds", 300) * 1000L,
+             SignupConfig.getInt("signup.flow.stall.seconds", 90) * 1000L);
+    }
+
+    public FlowWatchdog(DriverPool pool, long flowDeadlineMs, long stallMs) {
+        this.pool = pool;
+        this.flowDeadlineMs = flowDeadlineMs;
+        this.stallMs = stallMs;
+        this.checker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "signup-flow-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        this.checker.scheduleAtFixedRate(this::check, 1, 1, TimeUnit.SECONDS);
+    }
+
+    public Watch watch(String label) {
+        Watch w = new Watch(label, System.currentTimeMillis() + flowDeadlineMs);
+        watches.add(w);
+        return w;
+    }
+
+    public void shutdown() {
+        checker.shutdownNow();
+    }
+
+    private void check() {
+        long now = System.currentTimeMillis();
+        for (Watch w : watches) {
+            if (w.timeoutReason != null) continue;
+            if (now > w.deadlineAt) {
+                timeOut(w, "exceeded flow deadline of " + (flowDeadlineMs / 1000) + "s in step '" + w.step + "'");
+            } else if (now - w.lastHeartbeatAt > stallMs) {
+                timeOut(w, "stalled " + ((now - w.lastHeartbeatAt) / 1000) + "s in step '" + w.step + "'");
+            }
+        }
+    }
+
+    private void timeOut(Watch w, String reason) {
+        synchronized (w) {
+            if (w.closed) return;
+            w.timeoutReason = reason;
+        }
+        System.err.println("⏱️ Watchdog: " + w.label + " " + reason + " - killing browser");
+        WebDriver driver = w.driver;
+        if (driver != null) {
+            // A hung session usually hangs quit() too, so never wait on it from the watchdog thread
+            Thread quitter = new Thread(() -> {
+                try { driver.quit(); } catch (Exception ignore) {}
+            }, "watchdog-quit");
+            quitter.setDaemon(true);
+            quitter.start();
+            try {
+                quitter.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            pool.kill(driver);
+        }
+        // Never interrupt a thread that has already moved on to its next flow
+        synchronized (w) {
+            if (!w.closed && w.flowThread != null) w.flowThread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.usaflag;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fills the text fields of a React form in one executeScript call
+ * - Each value goes through the native HTMLInputElement value setter, followed by input, change and
+ *   focusout events, so React's controlled inputs and validation see it as typed
+ * - The script reads every value back; a field that was missing or whose value React reformatted or
+ *   rejected (masked phone and date inputs) is typed with clear()/sendKeys() instead; so is every field when
+ *   the script itself throws
+ * - Fields still missing when the batch wait ran out are looked up once, not waited for again
+ * - signup.form.fill=type skips the batch and types every field
+ * - WebDriver round trips are counted per form and mode; printReport() compares them
+ */
+public final class FormFill {
+
+    private static final boolean BATCH = !"type".equalsIgnoreCase(SignupConfig.getString("signup.form.fill", "batch"));
+
+    private static final String FILL_SCRIPT =
+        "var fields = arguments[0], result = [];"
+            + " for (var i = 0; i < fields.length; i++) {"
+            + "   var el = document.evaluate(fields[i][0], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "   if (el === null) { result.push('missing'); continue; }"
+            + "   var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;"
+            + "   Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, fields[i][1]);"
+            + "   el.dispatchEvent(new Event('input', { bubbles: true }));"
+            + "   el.dispatchEvent(new Event('change', { bubbles: true }));"
+            + "   el.dispatchEvent(new FocusEvent('focusout', { bubbles: true }));"
+            + "   result.push(el.value === fields[i][1] ? 'ok' : 'rejected');"
+            + " }"
+            + " return result;";
+
+    private static final class FormStats {
+        private final LongAdder batchForms = new LongAdder();
+        private final LongAdder batchTrips = new LongAdder();
+        private final LongAdder typedForms = new LongAdder();
+        private final LongAdder typedTrips = new LongAdder();
+        private final LongAdder typedFallbackFields = new LongAdder();
+    }
+
+    private static final Map<String, FormStats> STATS = new ConcurrentHashMap<>();
+
+    private final String form;
+    private final List<String> labels = new ArrayList<>();
+    private final List<String> xpaths = new ArrayList<>();
+    private final List<String> values = new ArrayList<>();
+
+    public FormFill(String form) {
+        this.form = form;
+    }
+
+    /** Add a text field; the value is logged under the label. */
+    public FormFill field(String label, String xpath, String value) {
+        labels.add(label);
+        xpaths.add(xpath);
+        values.add(value);
+        return this;
+    }
+
+    /**
+     * Fill every field, in one script when possible. Fields the batch could not set are typed.
+     */
+    public void fill(WebDriver driver, WebDriverWait wait) {
+        FormStats stats = STATS.computeIfAbsent(form, k -> new FormStats());
+        long[] trips = {0};
+        List<Integer> toType = new ArrayList<>();
+        boolean[] timedOut = {false};
+        if (BATCH) {
+            List<?> result = batch(wait, trips, timedOut);
+            for (int i = 0; i < labels.size(); i++) {
+                Object status = result == null ? "not set" : result.get(i);
+                if ("ok".equals(status)) {
+                    System.out.println("✅ " + labels.get(i) + " set: " + values.get(i));
+                } else {
+                    System.out.println("⚠️ " + labels.get(i) + " " + status + " by batch fill, typing it instead");
+                    toType.add(i);
+                }
+            }
+        } else {
+            for (int i = 0; i < labels.size(); i++) toType.add(i);
+        }
+        for (int i : toType) {
+            type(driver, wait, i, trips, timedOut[0]);
+        }
+        if (BATCH) {
+            stats.batchForms.increment();
+            stats.batchTrips.add(trips[0]);
+            stats.typedFallbackFields.add(toType.size());
+        } else {
+            stats.typedForms.increment();
+            stats.typedTrips.add(trips[0]);
+        }
+        System.out.println("📝 " + form + " form filled in " + trips[0] + " round trips (" + (BATCH ? "batch" : "typed") + ")");
+    }
+
+    /**
+     * Run the fill script until every field exists (the form may still be rendering) or the wait gives up;
+     * flags the timeout. Null when the script failed, so every field is typed.
+     */
+    private List<?> batch(WebDriverWait wait, long[] trips, boolean[] timedOut) {
+        List<List<String>> fields = new ArrayList<>();
+        for (int i = 0; i < xpaths.size(); i++) fields.add(List.of(xpaths.get(i), values.get(i)));
+        List<?>[] last = new List<?>[1];
+        try {
+            return wait.until(d -> {
+                trips[0]++;
+                Object result = ((JavascriptExecutor) d).executeScript(FILL_SCRIPT, fields);
+                last[0] = result instanceof List ? (List<?>) result : null;
+                return last[0] != null && !last[0].contains("missing") ? last[0] : null;
+            });
+        } catch (TimeoutException e) {
+            timedOut[0] = true;
+            return last[0];
+        } catch (JavascriptException e) {
+            System.out.println("⚠️ " + form + " fill script failed, typing every field: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Type one field; after a timed-out batch the field gets one lookup instead of a second full wait.
+     */
+    private void type(WebDriver driver, WebDriverWait wait, int i, long[] trips, boolean alreadyWaited) {
+        By by = By.xpath(xpaths.get(i));
+        System.out.println("📝 Entering " + labels.get(i) + ": " + values.get(i));
+        WebElement field;
+        if (alreadyWaited) {
+            trips[0]++;
+            List<WebElement> found = driver.findElements(by);
+            if (found.isEmpty()) throw new TimeoutException(labels.get(i) + " not found; the " + form + " form did not render in time");
+            field = found.get(0);
+        } else {
+            field = wait.until(d -> {
+                trips[0]++;
+                List<WebElement> found = d.findElements(by);
+                return found.isEmpty() ? null : found.get(0);
+            });
+        }
+        field.clear();
+        field.sendKeys(values.get(i));
+        trips[0] += 2;
+        System.out.println("✅ " + labels.get(i) + " entered successfully");
+    }
+
+    /**
+     * Print forms filled and WebDriver round trips per form, per mode.
+     */
+    public static void printReport() {
+        if (STATS.isEmpty()) return;
+        System.out.println("============= 📝 Form fill round trips =============");
+        for (Map.Entry<String, FormStats> e : STATS.entrySet()) {
+            FormStats s = e.getValue();
+            if (s.batchForms.sum() > 0) {
+                System.out.println(String.format("   %-16s batch: %4d forms, %5.1f round trips/form, %d fields typed as fallback",
+                    e.getKey(), s.batchForms.sum(), (double) s.batchTrips.sum() / s.batchForms.sum(), s.typedFallbackFields.sum()));
+            }
+            if (s.typedForms.sum() > 0) {
+                System.out.println(String.format("   %-16s typed: %4d forms, %5.1f round trips/form",
+                    e.getKey(), s.typedForms.sum(), (double) s.typedTrips.sum() / s.typedForms.sum()));
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.usaflag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Declarative worker-count profile for signup runs
+ * - Phases are separated by commas and run one after another:
+ *     ramp [from] to duration   linear change, e.g. "ramp 1 20 10m" or "ramp 40 5m" (from = current level)
+ *     step workers duration     jump to a level and keep it, e.g. "step 10 5m"
+ *     hold duration             keep the current level, e.g. "hold 30m"
+ *     spike workers duration    jump to a level, then fall back to the level before the spike
+ * - Durations accept ms, s, m and h; after the last phase the final level is kept until the CSV is drained
+ * - Example: "ramp 1 20 10m, hold 30m, spike 40 2m"
+ */
+public final class LoadProfile {
+
+    private static final Pattern DURATION = Pattern.compile("(\\d+)(ms|s|m|h)");
+
+    private static final class Phase {
+        private final String description;
+        private final int from;
+        private final int to;
+        private final long durationMs;
+
+        private Phase(String description, int from, int to, long durationMs) {
+            this.description = description;
+            this.from = from;
+            this.to = to;
+            this.durationMs = durationMs;
+        }
+    }
+
+    private final String spec;
+    private final List<Phase> phases;
+    private final int finalWorkers;
+
+    private LoadProfile(String spec, List<Phase> phases, int finalWorkers) {
+        this.spec = spec;
+        this.phases = phases;
+        this.finalWorkers = finalWorkers;
+    }
+
+    /**
+     * A flat profile: the same number of workers for the whole run.
+     */
+    public static LoadProfile constant(int workers) {
+        checkWorkers(workers, "constant " + workers);
+        return new LoadProfile("step " + workers, new ArrayList<>(), workers);
+    }
+
+    public static LoadProfile parse(String spec) {
+        if (spec == null || spec.trim().isEmpty()) {
+            throw new IllegalArgumentException("Load profile is empty");
+        }
+        List<Phase> phases = new ArrayList<>();
+        Integer level = null;
+        for (String raw : spec.split(",")) {
+            String phase = raw.trim();
+            if (phase.isEmpty()) continue;
+            String[] t = phase.split("\\s+");
+            switch (t[0].toLowerCase()) {
+                case "ramp": {
+                    if (t.length != 3 && t.length != 4) throw invalid(phase, "expected 'ramp [from] to duration'");
+                    int from = t.length == 4 ? parseWorkers(t[1], phase) : requireLevel(level, phase);
+                    int to = parseWorkers(t[t.length - 2], phase);
+                    phases.add(new Phase(phase, from, to, parseDuration(t[t.length - 1], phase)));
+                    level = to;
+                    break;
+                }
+                case "step": {
+                    if (t.length != 2 && t.length != 3) throw invalid(phase, "expected 'step workers [duration]'");
+                    int workers = parseWorkers(t[1], phase);
+                    long duration = t.length == 3 ? parseDuration(t[2], phase) : 0;
+                    phases.add(new Phase(phase, workers, workers, duration));
+                    level = workers;
+                    break;
+                }
+                case "hold": {
+                    if (t.length != 2) throw invalid(phase, "expected 'hold duration'");
+                    int current = requireLevel(level, phase);
+                    phases.add(new Phase(phase, current, current, parseDuration(t[1], phase)));
+                    break;
+                }
+                case "spike": {
+                    if (t.length != 3) throw invalid(phase, "expected 'spike workers duration'");
+                    int workers = parseWorkers(t[1], phase);
+                    phases.add(new Phase(phase, workers, workers, parseDuration(t[2], phase)));
+                    // level stays at the pre-spike value for the next phase
+                    if (level == null) level = workers;
+                    break;
+                }
+                default:
+                    throw invalid(phase, "unknown phase type '" + t[0] + "'");
+            }
+        }
+        if (phases.isEmpty() || level == null) {
+            throw new IllegalArgumentException("Load profile has no phases: '" + spec + "'");
+        }
+        return new LoadProfile(spec.trim(), phases, level);
+    }
+
+    /**
+     * Target number of workers at the given time since the start of the run.
+     */
+    public int workersAt(long elapsedMs) {
+        long phaseStart = 0;
+        for (Phase p : phases) {
+            if (elapsedMs < phaseStart + p.durationMs) {
+                double progress = (double) (elapsedMs - phaseStart) / p.durationMs;
+                return (int) Math.round(p.from + (p.to - p.from) * progress);
+            }
+            phaseStart += p.durationMs;
+        }
+        return finalWorkers;
+    }
+
+    /**
+     * Description of the phase active at the given time, for logging.
+     */
+    public String phaseAt(long elapsedMs) {
+        long phaseStart = 0;
+        for (Phase p : phases) {
+            if (elapsedMs < phaseStart + p.durationMs) return p.description;
+            phaseStart += p.durationMs;
+        }
+        return "final level " + finalWorkers;
+    }
+
+    public int peakWorkers() {
+        int peak = finalWorkers;
+        for (Phase p : phases) {
+            peak = Math.max(peak, Math.max(p.from, p.to));
+        }
+        return peak;
+    }
+
+    public long totalDurationMs() {
+        long total = 0;
+        for (Phase p : phases) total += p.durationMs;
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    private static int requireLevel(Integer level, String phase) {
+        if (level == null) throw invalid(phase, "needs a previous phase to define the current level");
+        return level;
+    }
+
+    private static int parseWorkers(String value, String phase) {
+        try {
+            int workers = Integer.parseInt(value);
+            checkWorkers(workers, phase);
+            return workers;
+        } catch (NumberFormatException e) {
+            throw invalid(phase, "'" + value + "' is not a worker count");
+        }
+    }
+
+    private static void checkWorkers(int workers, String phase) {
+        if (workers < 1) throw invalid(phase, "worker count must be >= 1");
+    }
+
+    private static long parseDuration(String value, String phase) {
+        Matcher m = DURATION.matcher(value.toLowerCase());
+        if (!m.matches()) throw invalid(phase, "'" + value + "' is not a duration (use ms, s, m or h)");
+        long amount = Long.parseLong(m.group(1));
+        switch (m.group(2)) {
+            case "ms": return amount;
+            case "s": return amount * 1000;
+            case "m": return amount * 60_000;
+            default: return amount * 3_600_000;
+        }
+    }
+
+    private static IllegalArgumentException invalid(String phase, String reason) {
+        return new IllegalArgumentException("Invalid load profile phase '" + phase + "': " + reason);
+    }
+}
@@ -0,0 +1,173 @@
+package com.usaflag;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ordered XPath fallbacks for one element, checked together instead of one after another
+ * - find() runs one in-page script that checks every candidate on each DOM change and returns the
+ *   best-ranked candidate that is rendered and enabled: a broken first selector no longer costs a full
+ *   wait before the next one is tried
+ * - Candidates are ranked by LocatorRegistry from earlier runs (declaration order until there is history);
+ *   dead candidates are only checked once the live ones have timed out
+ * - Timeouts are learned per chain through StepTimeouts ("locator/<name>")
+ */
+public final class LocatorChain {
+
+    /** The "Create An Account" button of the Parent, Youth and Adult signup forms. */
+    public static final LocatorChain CREATE_ACCOUNT_BUTTON = new LocatorChain("create account button")
+        .or("specific class selector", "//button[@class='shadow-md bg-dark-red text-gray-25 mt-3 w-full undefined' and @type='submit']")
+        .or("text and partial class selector", "//button[contains(@class, 'shadow-md') and contains(@class, 'bg-dark-red') and contains(text(), 'Create An Account')]")
+        .or("text selector", "//button[normalize-space()='Create An Account']")
+        .or("generic submit selector", "//button[@type='submit']");
+
+    private static final Duration SCRIPT_TIMEOUT = Duration.ofSeconds(30);
+    private static final long SCRIPT_MARGIN_MS = 2000;
+    /** How long to look again after each scroll of a scrolling search. */
+    private static final Duration SCROLL_WAIT = Duration.ofMillis(800);
+
+    private static final String FIND_FIRST =
+        "function findFirst(xpaths) {"
+            + "   for (var i = 0; i < xpaths.length; i++) {"
+            + "     var n = document.evaluate(xpaths[i], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "     if (n !== null && n.getClientRects().length > 0 && !n.disabled) return [i, n];"
+            + "   }"
+            + "   return null;"
+            + " }";
+
+    private static final String OBSERVE_SCRIPT = FIND_FIRST
+        + " var xpaths = arguments[0], timeoutMs = arguments[1], done = arguments[arguments.length - 1];"
+        + " var found = findFirst(xpaths);"
+        + " if (found !== null) { done(found); return; }"
+        + " var timer, observer = new MutationObserver(function () {"
+        + "   var hit = findFirst(xpaths);"
+        + "   if (hit !== null) { observer.disconnect(); clearTimeout(timer); done(hit); }"
+        + " });"
+        + " observer.observe(document.documentElement, { childList: true, subtree: true, attributes: true });"
+        + " timer = setTimeout(function () { observer.disconnect(); done(findFirst(xpaths)); }, timeoutMs);";
+
+    private static final String POLL_SCRIPT = FIND_FIRST + " return findFirst(arguments[0]);";
+
+    private final String name;
+    private final List<String> labels = new ArrayList<>();
+    private final List<String> xpaths = new ArrayList<>();
+
+    public LocatorChain(String name) {
+        this.name = name;
+    }
+
+    /** Add the next fallback candidate. */
+    public LocatorChain or(String label, String xpath) {
+        labels.add(label);
+        xpaths.add(xpath);
+        return this;
+    }
+
+    public String getName() { return name; }
+
+    /**
+     * Wait until any candidate is clickable and return it; better-ranked candidates win when several match.
+     *
+     * @throws TimeoutException if no candidate matched in time
+     */
+    public WebElement find(WebDriver driver, Duration defaultTimeout) {
+        return find(driver, defaultTimeout, 0, 0);
+    }
+
+    /**
+     * Like find(driver, timeout), but when nothing matches, scroll down by scrollPx up to scrolls times
+     * and search again after each scroll (for buttons rendered below the fold).
+     */
+    public WebElement find(WebDriver driver, Duration defaultTimeout, int scrolls, int scrollPx) {
+        String key = "locator/" + name;
+        Duration timeout = StepTimeouts.timeoutFor(key, defaultTimeout);
+        long start = System.currentTimeMillis();
+        WebElement found = search(driver, timeout, start);
+        for (int i = 0; found == null && i < scrolls; i++) {
+            ((JavascriptExecutor) driver).executeScript("window.scrollBy(0, arguments[0]);", scrollPx);
+            found = search(driver, SCROLL_WAIT, start);
+            if (found != null) System.out.println("   (after scroll " + (i + 1) + ")");
+        }
+        if (found == null) {
+            StepTimeouts.recordTimeout(key);
+            for (String label : labels) LocatorRegistry.recordMiss(name, label);
+            throw new TimeoutException("No locator of '" + name + "' matched within " + timeout.toMillis() + " ms");
+        }
+        StepTimeouts.record(key, System.currentTimeMillis() - start);
+        return found;
+    }
+
+    /**
+     * One search in ranked order: the live candidates in-page until the timeout, then one last check that
+     * includes dead candidates. Records the winner and the better-ranked candidates it beat.
+     */
+    private WebElement search(WebDriver driver, Duration timeout, long flowStart) {
+        List<Integer> ranked = LocatorRegistry.rank(name, labels);
+        List<Integer> live = new ArrayList<>();
+        for (int i : ranked) {
+            if (!LocatorRegistry.isDead(name, labels.get(i))) live.add(i);
+        }
+        if (live.isEmpty()) live = ranked;
+
+        long searchStart = System.currentTimeMillis();
+        List<Integer> order = live;
+        List<?> hit = observe(driver, xpathsOf(live), timeout);
+        if (hit == null) {
+            long left = timeout.toMillis() - (System.currentTimeMillis() - searchStart);
+            order = ranked;
+            hit = poll(driver, xpathsOf(ranked), Duration.ofMillis(Math.max(left, 1)));
+        }
+        if (hit == null) return null;
+
+        int position = ((Number) hit.get(0)).intValue();
+        int winner = order.get(position);
+        for (int i = 0; i < position; i++) LocatorRegistry.recordMiss(name, labels.get(order.get(i)));
+        LocatorRegistry.recordWin(name, labels.get(winner), System.currentTimeMillis() - flowStart);
+        System.out.println("✅ Found " + name + " using " + labels.get(winner));
+        return (WebElement) hit.get(1);
+    }
+
+    private List<String> xpathsOf(List<Integer> indexes) {
+        List<String> selected = new ArrayList<>();
+        for (int i : indexes) selected.add(xpaths.get(i));
+        return selected;
+    }
+
+    private static List<?> observe(WebDriver driver, List<String> xpaths, Duration timeout) {
+        // Long observer waits need a longer script timeout; the session's own value is put back afterwards
+        Duration scriptTimeout = null;
+        try {
+            if (timeout.toMillis() + SCRIPT_MARGIN_MS > SCRIPT_TIMEOUT.toMillis()) {
+                scriptTimeout = driver.manage().timeouts().getScriptTimeout();
+                driver.manage().timeouts().scriptTimeout(timeout.plusMillis(SCRIPT_MARGIN_MS));
+            }
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(OBSERVE_SCRIPT, xpaths, timeout.toMillis());
+            return result instanceof List ? (List<?>) result : null;
+        } catch (WebDriverException e) {
+            System.out.println("⚠️ Locator chain script failed, polling instead: " + e.getMessage());
+            return null;
+        } finally {
+            if (scriptTimeout != null) driver.manage().timeouts().scriptTimeout(scriptTimeout);
+        }
+    }
+
+    /** Fallback: one script per poll, still checking all candidates per round trip. */
+    private static List<?> poll(WebDriver driver, List<String> xpaths, Duration timeout) {
+        try {
+            return new WebDriverWait(driver, timeout).until(d -> {
+                Object result = ((JavascriptExecutor) d).executeScript(POLL_SCRIPT, xpaths);
+                return result instanceof List ? (List<?>) result : null;
+            });
+        } catch (TimeoutException e) {
+            return null;
+        }
+    }
+}
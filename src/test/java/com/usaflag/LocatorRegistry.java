@@ -0,0 +1,206 @@
+package com.usaflag;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Learned ranking of LocatorChain candidates, kept between runs in LocatorRegistry.csv
+ * - Per chain and candidate: wins, misses (a higher-ranked candidate that did not match when a lower one won)
+ *   and total time to match
+ * - Counts are recent, not lifetime: every new win or miss of a candidate first scales its older counts by
+ *   signup.locators.decay, so a candidate's record covers roughly its last 1 / (1 - decay) lookups
+ * - rank() orders a chain's candidates by hit ratio (wins + 1) / (wins + misses + 2), then wins, then declaration
+ *   order, so a former winner that stopped matching drops below the candidate now winning within a few lookups
+ * - A candidate with less than one recent win and at least signup.locators.dead.after recent misses is dead and is
+ *   left out of the first search (recent misses level off at 1 / (1 - decay), so dead.after has to stay below that)
+ * - save() merges this JVM's counts into the file under a file lock and prints the ranking
+ */
+public final class LocatorRegistry {
+
+    /** Counts for one candidate of one chain. */
+    private static final class Stats {
+        private double wins;
+        private double misses;
+        private double totalMs;
+
+        /** Scale the counts by the factor, then add the new ones. */
+        private synchronized void add(double factor, double wins, double misses, double ms) {
+            this.wins = this.wins * factor + wins;
+            this.misses = this.misses * factor + misses;
+            this.totalMs = this.totalMs * factor + ms;
+        }
+
+        private synchronized double wins() {
+            return wins;
+        }
+
+        private synchronized double misses() {
+            return misses;
+        }
+
+        private synchronized double totalMs() {
+            return totalMs;
+        }
+    }
+
+    private static final String REGISTRY_FILE = SignupConfig.getString("signup.locators.file", "LocatorRegistry.csv");
+    private static final int DEAD_AFTER = SignupConfig.getInt("signup.locators.dead.after", 20);
+    private static final double DECAY = Math.max(0, Math.min(1, SignupConfig.getDouble("signup.locators.decay", 0.98)));
+
+    /** History plus this JVM's counts, keyed "chain|candidate". */
+    private static final Map<String, Stats> TOTALS = new ConcurrentHashMap<>();
+    /** This JVM's counts, not yet saved. */
+    private static final Map<String, Stats> UNSAVED = new ConcurrentHashMap<>();
+
+    static {
+        TOTALS.putAll(readRegistry());
+    }
+
+    private LocatorRegistry() {}
+
+    /**
+     * Candidate indexes of the chain, best first.
+     */
+    static List<Integer> rank(String chain, List<String> labels) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < labels.size(); i++) order.add(i);
+        order.sort(Comparator.<Integer>comparingDouble(i -> -hitRatio(chain, labels.get(i)))
+            .thenComparingDouble(i -> -wins(chain, labels.get(i)))
+            .thenComparingInt(i -> i));
+        return order;
+    }
+
+    static boolean isDead(String chain, String label) {
+        return wins(chain, label) < 1 && misses(chain, label) >= DEAD_AFTER;
+    }
+
+    static void recordWin(String chain, String label, long ms) {
+        TOTALS.computeIfAbsent(key(chain, label), k -> new Stats()).add(DECAY, 1, 0, ms);
+        UNSAVED.computeIfAbsent(key(chain, label), k -> new Stats()).add(1, 1, 0, ms);
+    }
+
+    static void recordMiss(String chain, String label) {
+        TOTALS.computeIfAbsent(key(chain, label), k -> new Stats()).add(DECAY, 0, 1, 0);
+        UNSAVED.computeIfAbsent(key(chain, label), k -> new Stats()).add(1, 0, 1, 0);
+    }
+
+    /**
+     * Drop every candidate count this JVM holds for the chain, so a later save() does not write it; for offline tests.
+     */
+    static void forget(String chain) {
+        String prefix = chain + "|";
+        TOTALS.keySet().removeIf(k -> k.startsWith(prefix));
+        UNSAVED.keySet().removeIf(k -> k.startsWith(prefix));
+    }
+
+    /** Smoothed recent hit ratio; 0.5 for a candidate without history. */
+    static double hitRatio(String chain, String label) {
+        double wins = wins(chain, label);
+        return (wins + 1) / (wins + misses(chain, label) + 2);
+    }
+
+    private static double wins(String chain, String label) {
+        Stats s = TOTALS.get(key(chain, label));
+        return s == null ? 0 : s.wins();
+    }
+
+    private static double misses(String chain, String label) {
+        Stats s = TOTALS.get(key(chain, label));
+        return s == null ? 0 : s.misses();
+    }
+
+    private static String key(String chain, String label) {
+        return chain + "|" + label;
+    }
+
+    /**
+     * Merge this JVM's counts into the registry file and print the ranking. The file's counts for a candidate
+     * are decayed once per lookup this JVM recorded for it.
+     */
+    public static void save() {
+        if (UNSAVED.isEmpty()) return;
+        File lockFile = new File(REGISTRY_FILE + ".lock");
+        try (RandomAccessFile raf = new RandomAccessFile(lockFile, "rw")) {
+            FileLock lock = raf.getChannel().lock();
+            try {
+                Map<String, Stats> merged = readRegistry();
+                for (String k : new ArrayList<>(UNSAVED.keySet())) {
+                    Stats delta = UNSAVED.remove(k);
+                    double lookups = delta.wins() + delta.misses();
+                    merged.computeIfAbsent(k, x -> new Stats())
+                        .add(Math.pow(DECAY, lookups), delta.wins(), delta.misses(), delta.totalMs());
+                }
+                writeRegistry(merged);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to save locator registry: " + e.getMessage());
+            return;
+        }
+        printReport();
+    }
+
+    private static void printReport() {
+        System.out.println("============= 🔎 Locator ranking =============");
+        for (Map.Entry<String, Stats> e : new TreeMap<>(TOTALS).entrySet()) {
+            Stats s = e.getValue();
+            double wins = s.wins();
+            String[] parts = e.getKey().split("\\|", 2);
+            System.out.println(String.format(Locale.ROOT, "   %-24s %-34s %6.1f wins %6.1f misses  hit %3.0f%%  avg %5.0f ms%s",
+                parts[0], parts[1], wins, s.misses(), hitRatio(parts[0], parts[1]) * 100,
+                wins > 0 ? s.totalMs() / wins : 0, isDead(parts[0], parts[1]) ? "  (dead)" : ""));
+        }
+    }
+
+    private static Map<String, Stats> readRegistry() {
+        Map<String, Stats> registry = new ConcurrentHashMap<>();
+        File file = new File(REGISTRY_FILE);
+        if (!file.exists()) return registry;
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            boolean isFirst = true;
+            while ((line = br.readLine()) != null) {
+                if (isFirst) { isFirst = false; continue; }
+                String[] f = line.split(",");
+                if (f.length < 5) continue;
+                try {
+                    Stats s = new Stats();
+                    s.add(1, Double.parseDouble(f[2].trim()), Double.parseDouble(f[3].trim()), Double.parseDouble(f[4].trim()));
+                    registry.put(key(f[0], f[1]), s);
+                } catch (NumberFormatException ignore) {}
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to read locator registry: " + e.getMessage());
+        }
+        return registry;
+    }
+
+    private static void writeRegistry(Map<String, Stats> registry) throws IOException {
+        File tmp = new File(REGISTRY_FILE + ".tmp");
+        try (PrintWriter writer = new PrintWriter(new FileWriter(tmp, false))) {
+            writer.println("Chain,Candidate,Wins,Misses,TotalMs");
+            for (Map.Entry<String, Stats> e : new TreeMap<>(registry).entrySet()) {
+                String[] parts = e.getKey().split("\\|", 2);
+                Stats s = e.getValue();
+                writer.println(String.format(Locale.ROOT, "%s,%s,%.3f,%.3f,%.0f", parts[0], parts[1], s.wins(), s.misses(), s.totalMs()));
+            }
+        }
+        Files.move(tmp.toPath(), new File(REGISTRY_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
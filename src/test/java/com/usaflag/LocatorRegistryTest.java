@@ -0,0 +1,48 @@
+package com.usaflag;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * Offline regression checks for LocatorRegistry ranking; needs no browser, and each test forgets its chain so a
+ * later save() in the suite JVM does not write it to the registry file
+ * - A long-time winner that stops matching drops below the candidate now winning within a few lookups
+ * - A candidate with only misses is dead; one win keeps it alive
+ */
+public class LocatorRegistryTest {
+
+    @Test
+    public void brokenWinnerDropsDown() {
+        String chain = "test/broken winner " + System.nanoTime();
+        List<String> labels = List.of("old", "new");
+        try {
+            for (int i = 0; i < 1000; i++) LocatorRegistry.recordWin(chain, "old", 50);
+            Assert.assertEquals(LocatorRegistry.rank(chain, labels), List.of(0, 1));
+
+            int lookups = 0;
+            while (LocatorRegistry.rank(chain, labels).get(0) == 0) {
+                LocatorRegistry.recordMiss(chain, "old");
+                LocatorRegistry.recordWin(chain, "new", 50);
+                lookups++;
+                Assert.assertTrue(lookups <= 10, "old winner still ranked first after " + lookups + " misses");
+            }
+        } finally {
+            LocatorRegistry.forget(chain);
+        }
+    }
+
+    @Test
+    public void onlyMissesMakeCandidateDead() {
+        String chain = "test/dead " + System.nanoTime();
+        try {
+            for (int i = 0; i < 30; i++) LocatorRegistry.recordMiss(chain, "never");
+            Assert.assertTrue(LocatorRegistry.isDead(chain, "never"));
+            LocatorRegistry.recordWin(chain, "never", 50);
+            Assert.assertFalse(LocatorRegistry.isDead(chain, "never"));
+        } finally {
+            LocatorRegistry.forget(chain);
+        }
+    }
+}
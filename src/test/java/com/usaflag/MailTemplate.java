@@ -0,0 +1,184 @@
+package com.usaflag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads codes and links straight out of raw portal mail bodies, without a DOM and without stripping tags first
+ * - A template is an optional anchor (text the mail always contains) and ordered value rules; the first rule
+ *   with a hit from the anchor on wins
+ * - Every pattern is compiled once when the template is declared; extract() runs one forward scan per rule
+ *   over the body as it is, and reads no copy of it
+ * - value() rules see the raw markup (attributes, hrefs); text() rules only see the text between tags, as the
+ *   scan steps over tags and style blocks
+ * - The value is the first capturing group a match sets
+ * - Templates declared here are registered; register() adds more, registered() lists them in order
+ */
+public final class MailTemplate {
+
+    /** A link: the href of an anchor tag, or a bare URL in a text mail. */
+    private static final String LINK = "<a\\s[^>]*?href\\s*=\\s*[\"']([^\"']+)[\"']|(?<![=\"'\\w])(https?://[^\\s<>\"']+)";
+
+    private static final List<MailTemplate> REGISTRY = new CopyOnWriteArrayList<>();
+
+    /** The six-digit signup code: the 24px code paragraph, else the first six digits of the text content. */
+    public static final MailTemplate SIGNUP_OTP = register(new MailTemplate("signup otp")
+        .value("<p[^>]*font-size:\\s*24px[^>]*>\\s*(?:<[^>]+>\\s*)*(\\d{6})(?!\\d)")
+        .text("\\b(\\d{6})\\b"));
+
+    /** The sign-up link of the youth invitation a parent sends when adding a child. */
+    public static final MailTemplate YOUTH_INVITATION = register(new MailTemplate("youth invitation")
+        .after("We are excited to invite you to join the")
+        .value(LINK));
+
+    /** The reset link of the password reset mail. */
+    public static final MailTemplate PASSWORD_RESET = register(new MailTemplate("password reset")
+        .after("reset your password")
+        .value(LINK));
+
+    private final String name;
+    private String anchor;
+    private final List<Rule> rules = new ArrayList<>();
+
+    /** One value pattern, and whether it reads text content only. */
+    private static final class Rule {
+        private final Pattern pattern;
+        private final boolean textOnly;
+
+        private Rule(Pattern pattern, boolean textOnly) {
+            this.pattern = pattern;
+            this.textOnly = textOnly;
+        }
+    }
+
+    public MailTemplate(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Only look from the first occurrence of the text on (case-insensitive); a mail without it does not match.
+     */
+    public MailTemplate after(String text) {
+        this.anchor = text.toLowerCase(Locale.ROOT);
+        return this;
+    }
+
+    /**
+     * Add a rule over the raw body, tried after the ones before it.
+     */
+    public MailTemplate value(String regex) {
+        rules.add(new Rule(Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.DOTALL), false));
+        return this;
+    }
+
+    /**
+     * Add a rule over the text between tags, tried after the ones before it; a match cannot span a tag.
+     */
+    public MailTemplate text(String regex) {
+        rules.add(new Rule(Pattern.compile(regex, Pattern.CASE_INSENSITIVE), true));
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Add the template to the registry and return it.
+     */
+    public static MailTemplate register(MailTemplate template) {
+        REGISTRY.add(template);
+        return template;
+    }
+
+    public static List<MailTemplate> registered() {
+        return Collections.unmodifiableList(REGISTRY);
+    }
+
+    /**
+     * The template's value in the raw mail body (HTML or text), with &amp; entities decoded; null when the mail
+     * lacks the anchor or no rule matches.
+     */
+    public String extract(CharSequence body) {
+        if (body == null) return null;
+        int from = 0;
+        if (anchor != null) {
+            int at = indexOf(body, anchor, 0);
+            if (at < 0) return null;
+            from = at + anchor.length();
+        }
+        for (Rule rule : rules) {
+            Matcher m = rule.pattern.matcher(body);
+            String value = rule.textOnly ? findInText(m, body, from) : find(m, from, body.length());
+            if (value != null) return value.indexOf('&') >= 0 ? value.replace("&amp;", "&") : value;
+        }
+        return null;
+    }
+
+    /** Run the matcher over each text run between tags, stepping over tags and style blocks. */
+    private static String findInText(Matcher m, CharSequence body, int from) {
+        int length = body.length();
+        int i = from;
+        while (i < length) {
+            if (body.charAt(i) == '<') {
+                int end = startsWith(body, i, "<style") ? indexOf(body, "</style", i) : i;
+                end = end < 0 ? -1 : indexOf(body, '>', end);
+                i = end < 0 ? length : end + 1;
+                continue;
+            }
+            int next = indexOf(body, '<', i);
+            if (next < 0) next = length;
+            String value = find(m, i, next);
+            if (value != null) return value;
+            i = next;
+        }
+        return null;
+    }
+
+    private static String find(Matcher m, int start, int end) {
+        m.region(start, end);
+        while (m.find()) {
+            for (int g = 1; g <= m.groupCount(); g++) {
+                if (m.group(g) != null) return m.group(g);
+            }
+        }
+        return null;
+    }
+
+    /** Whether the body has the lower-case prefix at the position, ignoring ASCII case. */
+    private static boolean startsWith(CharSequence body, int at, String prefix) {
+        if (at + prefix.length() > body.length()) return false;
+        for (int k = 0; k < prefix.length(); k++) {
+            if (Character.toLowerCase(body.charAt(at + k)) != prefix.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    /** First position of the lower-case needle from the position on, ignoring ASCII case; -1 if absent. */
+    private static int indexOf(CharSequence body, String needle, int from) {
+        char first = needle.charAt(0);
+        char firstUpper = Character.toUpperCase(first);
+        for (int i = from, last = body.length() - needle.length(); i <= last; i++) {
+            char c = body.charAt(i);
+            if ((c == first || c == firstUpper) && startsWith(body, i, needle)) return i;
+        }
+        return -1;
+    }
+
+    private static int indexOf(CharSequence body, char c, int from) {
+        for (int i = from; i < body.length(); i++) {
+            if (body.charAt(i) == c) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
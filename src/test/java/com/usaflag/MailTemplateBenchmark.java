@@ -0,0 +1,117 @@
+package com.usaflag;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Offline microbenchmark of MailTemplate over the saved mails in src/test/resources/mail-corpus; needs no browser
+ * - Checks every registered template against every mail first (expected values in mail-corpus/expected.properties)
+ * - Then times signup.benchmark.templates.iterations passes (default 20000) over the corpus: the signup OTP
+ *   template next to the per-call approach it replaced (strip style blocks and tags, compile \d{6}, search the
+ *   copy), and all registered templates
+ */
+public class MailTemplateBenchmark {
+
+    private static final String CORPUS = "mail-corpus";
+    private static final int ITERATIONS = SignupConfig.getInt("signup.benchmark.templates.iterations", 20000);
+
+    @Test
+    public void benchmarkTemplatesOverCorpus() throws Exception {
+        Map<String, String> mails = loadCorpus();
+        Properties expected = new Properties();
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(CORPUS + "/expected.properties")) {
+            Assert.assertNotNull(in, "mail-corpus/expected.properties missing");
+            expected.load(in);
+        }
+
+        for (Map.Entry<String, String> mail : mails.entrySet()) {
+            String entry = expected.getProperty(mail.getKey());
+            for (MailTemplate template : MailTemplate.registered()) {
+                String want = null;
+                if (entry != null && entry.startsWith(template.getName() + "|")) want = entry.substring(template.getName().length() + 1);
+                Assert.assertEquals(template.extract(mail.getValue()), want, template + " in " + mail.getKey());
+            }
+        }
+
+        long corpusBytes = 0;
+        for (String body : mails.values()) corpusBytes += body.length();
+        List<MailTemplate> otp = List.of(MailTemplate.SIGNUP_OTP);
+        run(mails, MailTemplate.registered(), ITERATIONS / 10);
+        legacy(mails, ITERATIONS / 10);
+        long otpNs = run(mails, otp, ITERATIONS);
+        long legacyNs = legacy(mails, ITERATIONS);
+        long allNs = run(mails, MailTemplate.registered(), ITERATIONS);
+
+        long messages = (long) ITERATIONS * mails.size();
+        System.out.println("============= ✉️ Mail template benchmark =============");
+        System.out.println(String.format("   Corpus: %d mails, %.1f KB; %d templates registered",
+            mails.size(), corpusBytes / 1024.0, MailTemplate.registered().size()));
+        System.out.println(String.format("   Signup OTP: MailTemplate %.0f ns per mail, per-call strip and compile %.0f ns per mail (%.1fx)",
+            (double) otpNs / messages, (double) legacyNs / messages, (double) legacyNs / otpNs));
+        System.out.println(String.format("   All templates: %.0f ns per mail (%.0f MB/s)",
+            (double) allNs / messages, corpusBytes * (double) ITERATIONS / allNs * 1000));
+    }
+
+    private static long run(Map<String, String> mails, List<MailTemplate> templates, int iterations) {
+        int found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (String body : mails.values()) {
+                for (MailTemplate template : templates) {
+                    if (template.extract(body) != null) found++;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        Assert.assertTrue(found > 0);
+        return elapsed;
+    }
+
+    /** The OTP lookup the flows used before MailTemplate: a tag-stripped copy of the body and a fresh Pattern per call. */
+    private static long legacy(Map<String, String> mails, int iterations) {
+        int found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (String body : mails.values()) {
+                String text = body.replaceAll("(?is)<style[^>]*>.*?</style>", " ").replaceAll("<[^>]+>", " ");
+                Matcher digits = Pattern.compile("\\d{6}").matcher(text);
+                if (digits.find()) found++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        Assert.assertTrue(found > 0);
+        return elapsed;
+    }
+
+    /** File name to body of every mail in the corpus directory, in name order. */
+    private Map<String, String> loadCorpus() throws IOException, URISyntaxException {
+        URL dir = getClass().getClassLoader().getResource(CORPUS);
+        Assert.assertNotNull(dir, "mail-corpus not on the test classpath");
+        Map<String, String> mails = new LinkedHashMap<>();
+        try (Stream<Path> files = Files.list(Paths.get(dir.toURI()))) {
+            for (Path file : (Iterable<Path>) files.sorted()::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".properties")) continue;
+                mails.put(name, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            }
+        }
+        Assert.assertFalse(mails.isEmpty(), "mail-corpus is empty");
+        return mails;
+    }
+}
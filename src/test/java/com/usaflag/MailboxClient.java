@@ -0,0 +1,58 @@
+package com.usaflag;
+
+import java.time.Duration;
+
+/**
+ * Where the signup flows read their mail from, without a browser tab
+ * - signup.mail.client=yopmail (default): YopmailHttpClient fetches the YOPmail inbox and message pages over HTTP
+ * - signup.mail.client=local: SmtpSink, the embedded SMTP server the staging portal can relay to
+ * - Both block until the mail lands or the timeout (signup.mail.timeout.seconds, default 60) passes,
+ *   and throw a RuntimeException on timeout
+ */
+public interface MailboxClient {
+
+    Duration DEFAULT_TIMEOUT = Duration.ofSeconds(SignupConfig.getInt("signup.mail.timeout.seconds", 60));
+
+    /**
+     * The newest six-digit verification code sent to the address that was not handed out before.
+     */
+    String awaitOtp(String email, Duration timeout) throws InterruptedException;
+
+    /**
+     * One check of the address's inbox: like awaitOtp, but null at once when no new code is there yet.
+     */
+    String pollOtp(String email);
+
+    /**
+     * Treat every message now in the address's inbox as seen, so only mail arriving after this call yields a code.
+     */
+    void skipExisting(String email);
+
+    /**
+     * When the mail with the code last handed out for the address arrived, in epoch millis; 0 when unknown.
+     */
+    default long deliveredAt(String email) {
+        return 0;
+    }
+
+    /**
+     * The HTML body of the newest message to the address containing the text.
+     */
+    String awaitMessage(String email, String containing, Duration timeout) throws InterruptedException;
+
+    default String awaitOtp(String email) throws InterruptedException {
+        return awaitOtp(email, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * The client selected by signup.mail.client.
+     */
+    static MailboxClient configured() {
+        String client = SignupConfig.getString("signup.mail.client", "yopmail");
+        if ("local".equalsIgnoreCase(client)) return SmtpSink.shared();
+        if (!"yopmail".equalsIgnoreCase(client)) {
+            throw new IllegalArgumentException("Unknown signup.mail.client: " + client + " (expected yopmail or local)");
+        }
+        return YopmailHttpClient.shared();
+    }
+}
@@ -0,0 +1,220 @@
+package com.usaflag;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline benchmark of the MailboxClient implementations; needs no browser and no network
+ * - local: OTP mails are sent over SMTP to an SmtpSink on a free port while waiters block in awaitOtp
+ * - yopmail-http: YopmailHttpClient polls a YOPmail stand-in (start page, webmail.js, inbox, mail pages)
+ *   served from a local HTTP server
+ * - Each run sends signup.benchmark.mail.users codes (default 200) after a random 0-200 ms delay
+ *   and prints latency from send to code, throughput, and HTTP requests and bytes per code
+ */
+public class MailboxClientBenchmark {
+
+    private static final int USERS = SignupConfig.getInt("signup.benchmark.mail.users", 200);
+    private static final int WAITERS = 32;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String OTP_MAIL =
+        "<html><body><table><tr><td><p>Use this code to verify your USA Flag account:</p>"
+            + "<p style=\"font-size: 24px; font-weight: bold; letter-spacing: 4px;\">%s</p>"
+            + "<p>The code expires in 10 minutes.</p></td></tr></table></body></html>";
+
+    /** Sends one code to one address, the way the staging portal would. */
+    private interface Portal {
+        void deliver(String email, String otp) throws Exception;
+    }
+
+    @Test
+    public void benchmarkLocalSmtpSink() throws Exception {
+        try (SmtpSink sink = SmtpSink.start(0)) {
+            run("local", sink, (email, otp) -> sendMail(sink.getPort(), email, "Verify your email", String.format(OTP_MAIL, otp)), null);
+        }
+    }
+
+    @Test
+    public void benchmarkYopmailHttpClient() throws Exception {
+        YopmailStandIn yopmail = new YopmailStandIn();
+        try {
+            YopmailHttpClient client = new YopmailHttpClient(yopmail.url(), Duration.ofMillis(50));
+            run("yopmail-http", client, (email, otp) -> yopmail.deliver(email, String.format(OTP_MAIL, otp)), client);
+        } finally {
+            yopmail.stop();
+        }
+    }
+
+    private void run(String name, MailboxClient client, Portal portal, YopmailHttpClient http) throws Exception {
+        ExecutorService portalPool = Executors.newFixedThreadPool(8);
+        ExecutorService waiterPool = Executors.newFixedThreadPool(WAITERS);
+        Map<String, Long> sent = new ConcurrentHashMap<>();
+        List<Long> latencies = new CopyOnWriteArrayList<>();
+        try {
+            long start = System.currentTimeMillis();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < USERS; i++) {
+                String email = "bench." + name + "." + i + "@yopmail.com";
+                String otp = String.format("%06d", ThreadLocalRandom.current().nextInt(1_000_000));
+                futures.add(portalPool.submit(() -> {
+                    Thread.sleep(ThreadLocalRandom.current().nextInt(200));
+                    sent.put(email, System.currentTimeMillis());
+                    portal.deliver(email, otp);
+                    return null;
+                }));
+                futures.add(waiterPool.submit(() -> {
+                    String code = client.awaitOtp(email, TIMEOUT);
+                    latencies.add(System.currentTimeMillis() - sent.get(email));
+                    Assert.assertEquals(code, otp, "code for " + email);
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) f.get(TIMEOUT.toMillis() * 2, TimeUnit.MILLISECONDS);
+            long elapsed = System.currentTimeMillis() - start;
+
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            System.out.println("============= 📬 Mailbox benchmark: " + name + " =============");
+            System.out.println(String.format("   %d codes in %d ms (%.1f codes/s)", USERS, elapsed, USERS * 1000.0 / elapsed));
+            System.out.println(String.format("   send -> code: p50 %d ms, p95 %d ms, max %d ms",
+                percentile(sorted, 50), percentile(sorted, 95), sorted.get(sorted.size() - 1)));
+            if (http != null) {
+                System.out.println(String.format("   HTTP: %.1f requests and %.1f KB per code",
+                    (double) http.getRequests() / USERS, http.getBytes() / 1024.0 / USERS));
+            }
+        } finally {
+            portalPool.shutdownNow();
+            waiterPool.shutdownNow();
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int p) {
+        return sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(p / 100.0 * sorted.size()) - 1));
+    }
+
+    /** Send one HTML mail to the sink the way the portal's SMTP relay would. */
+    private static void sendMail(int port, String to, String subject, String html) throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            in.readLine();
+            for (String command : new String[] {"EHLO portal", "MAIL FROM:<noreply@usaflag.org>", "RCPT TO:<" + to + ">", "DATA"}) {
+                out.write(command + "\r\n");
+                out.flush();
+                String line;
+                do { line = in.readLine(); } while (line != null && line.length() > 3 && line.charAt(3) == '-');
+            }
+            out.write("Subject: " + subject + "\r\nContent-Type: text/html; charset=UTF-8\r\n\r\n" + html + "\r\n.\r\nQUIT\r\n");
+            out.flush();
+            in.readLine();
+        }
+    }
+
+    /**
+     * Local HTTP server answering the four YOPmail pages the client uses.
+     */
+    private static final class YopmailStandIn {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newFixedThreadPool(8);
+        /** Messages per login, newest first: id and HTML. */
+        private final Map<String, List<String[]>> inboxes = new ConcurrentHashMap<>();
+
+        private YopmailStandIn() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(executor);
+            server.createContext("/en/", this::handle);
+            server.createContext("/ver/", exchange -> respond(exchange, 200, "var u = '/en/inbox?login=' + l + '&yj=QZGx0AmHjZmV4ZGZ&v=' + v;"));
+            server.start();
+        }
+
+        private String url() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+
+        private void deliver(String email, String html) {
+            String login = email.substring(0, email.indexOf('@')).toLowerCase();
+            List<String[]> inbox = inboxes.computeIfAbsent(login, k -> new CopyOnWriteArrayList<>());
+            inbox.add(0, new String[] {"ZwR" + Integer.toHexString(html.hashCode()) + inbox.size(), html});
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            URI uri = exchange.getRequestURI();
+            Map<String, String> query = query(uri.getRawQuery());
+            switch (uri.getPath()) {
+                case "/en/":
+                    respond(exchange, 200, "<html><head><script src=\"/ver/9.0/webmail.js\"></script></head><body>"
+                        + "<input type=\"hidden\" name=\"yp\" id=\"yp\" value=\"JZGN0ZmZ3AGHkZmN\"></body></html>");
+                    return;
+                case "/en/inbox": {
+                    StringBuilder page = new StringBuilder("<html><body>");
+                    for (String[] m : inboxes.getOrDefault(query.get("login"), List.of())) {
+                        page.append("<div class=\"m\" onclick=\"g(6,0);\" id=\"e_").append(m[0])
+                            .append("\"><div class=\"lms\">Verify your email</div></div>");
+                    }
+                    respond(exchange, 200, page.append("</body></html>").toString());
+                    return;
+                }
+                case "/en/mail":
+                    for (String[] m : inboxes.getOrDefault(query.get("b"), List.of())) {
+                        if (("m" + m[0]).equals(query.get("id"))) {
+                            respond(exchange, 200, "<html><body><div id=\"mail\">" + m[1] + "</div></body></html>");
+                            return;
+                        }
+                    }
+                    respond(exchange, 404, "");
+                    return;
+                default:
+                    respond(exchange, 404, "");
+            }
+        }
+
+        private static Map<String, String> query(String raw) {
+            Map<String, String> params = new HashMap<>();
+            if (raw == null) return params;
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) params.put(pair.substring(0, eq), java.net.URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+            return params;
+        }
+
+        private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+
+        private void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
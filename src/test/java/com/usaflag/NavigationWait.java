@@ -0,0 +1,288 @@
+package com.usaflag;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Navigation waits driven by Chrome DevTools events instead of fixed sleeps after form submits
+ * - arm() before the click starts recording the portal's XHR/fetch requests for the transition;
+ *   await() returns once the route condition holds and no XHR/fetch has been in flight for signup.nav.idle.ms
+ * - Only requests sent after arm() hold the wait; a request still unanswered after signup.nav.request.cap.ms is
+ *   dropped, and DriverPool clears a browser's requests when it resets the session
+ * - The wait wakes on every Network/Page event (route pushState, request finished), so it returns when
+ *   the next page is interactive rather than at the next poll
+ * - Uses raw CDP method names ("Network.requestWillBeSent"), so it works with any Chrome version;
+ *   a driver without DevTools, a failed DevTools session or signup.nav.mode=poll falls back to ReadyWait polling
+ * - Timeouts are learned through StepTimeouts ("nav/<step>"); each transition logs its XHR count and slowest request,
+ *   printReport() shows XHR time per step next to the fixed sleeps the waits replaced
+ */
+public final class NavigationWait {
+
+    private static final boolean CDP = !"poll".equalsIgnoreCase(SignupConfig.getString("signup.nav.mode", "cdp"));
+    private static final Duration TIMEOUT = Duration.ofSeconds(SignupConfig.getInt("signup.nav.timeout.seconds", 15));
+    private static final long IDLE_MS = SignupConfig.getInt("signup.nav.idle.ms", 500);
+    private static final long REQUEST_CAP_MS = SignupConfig.getInt("signup.nav.request.cap.ms", 10000);
+    private static final long POLL_MS = Math.max(10, SignupConfig.getInt("signup.ready.poll.ms", 100));
+
+    /** One XHR/fetch request seen during a transition. */
+    private static final class Xhr {
+        private final String url;
+        private final double startSec;
+        private final long seenAt = System.currentTimeMillis();
+        private volatile double endSec = -1;
+
+        private Xhr(String url, double startSec) {
+            this.url = url;
+            this.startSec = startSec;
+        }
+
+        private long durationMs() {
+            return endSec < 0 ? -1 : Math.round((endSec - startSec) * 1000);
+        }
+    }
+
+    /**
+     * Network listener of one browser: XHR/fetch requests in flight and the time of the last event.
+     */
+    private static final class NetworkMonitor {
+        private final Map<String, Xhr> inFlight = new ConcurrentHashMap<>();
+        private final Object signal = new Object();
+        private volatile long lastActivity = System.currentTimeMillis();
+        private volatile List<Xhr> recording;
+
+        private void requestStarted(Map<String, Object> params) {
+            String type = String.valueOf(params.get("type"));
+            if (!"XHR".equals(type) && !"Fetch".equals(type)) return;
+            String id = String.valueOf(params.get("requestId"));
+            Map<?, ?> request = (Map<?, ?>) params.get("request");
+            Xhr xhr = new Xhr(request == null ? "?" : request.get("method") + " " + request.get("url"), seconds(params));
+            if (inFlight.putIfAbsent(id, xhr) == null) {
+                List<Xhr> target = recording;
+                if (target != null) target.add(xhr);
+            }
+            activity();
+        }
+
+        private void requestEnded(Map<String, Object> params) {
+            Xhr xhr = inFlight.remove(String.valueOf(params.get("requestId")));
+            if (xhr == null) return;
+            xhr.endSec = seconds(params);
+            activity();
+        }
+
+        private void activity() {
+            lastActivity = System.currentTimeMillis();
+            synchronized (signal) {
+                signal.notifyAll();
+            }
+        }
+
+        /**
+         * No request sent since the given time is in flight and nothing happened for the given millis.
+         * Requests older than the cap are dropped as never answered.
+         */
+        private boolean idleFor(long ms, long since) {
+            long now = System.currentTimeMillis();
+            boolean busy = false;
+            for (Iterator<Xhr> it = inFlight.values().iterator(); it.hasNext(); ) {
+                Xhr xhr = it.next();
+                if (now - xhr.seenAt > REQUEST_CAP_MS) it.remove();
+                else if (xhr.seenAt >= since) busy = true;
+            }
+            return !busy && now - lastActivity >= ms;
+        }
+
+        private void clear() {
+            inFlight.clear();
+            recording = null;
+        }
+
+        private void awaitEvent(long ms) throws InterruptedException {
+            synchronized (signal) {
+                signal.wait(Math.max(1, ms));
+            }
+        }
+
+        private static double seconds(Map<String, Object> params) {
+            Object ts = params.get("timestamp");
+            return ts instanceof Number ? ((Number) ts).doubleValue() : System.nanoTime() / 1e9;
+        }
+    }
+
+    private static final class StepStats {
+        private final LongAdder navigations = new LongAdder();
+        private final LongAdder replacedMs = new LongAdder();
+        private final LongAdder waitedMs = new LongAdder();
+        private final LongAdder xhrs = new LongAdder();
+        private final LongAdder xhrMs = new LongAdder();
+        private volatile long slowestXhrMs;
+        private final LongAdder timeouts = new LongAdder();
+    }
+
+    /** Monitor per browser; null once DevTools failed for that browser. */
+    private static final Map<WebDriver, NetworkMonitor> MONITORS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<String, StepStats> STATS = new ConcurrentHashMap<>();
+
+    private final WebDriver driver;
+    private final String step;
+    private final NetworkMonitor monitor;
+    private final List<Xhr> xhrs = Collections.synchronizedList(new ArrayList<>());
+    private final long armedAt = System.currentTimeMillis();
+
+    private NavigationWait(WebDriver driver, String step, NetworkMonitor monitor) {
+        this.driver = driver;
+        this.step = step;
+        this.monitor = monitor;
+        if (monitor != null) monitor.recording = xhrs;
+    }
+
+    /**
+     * Start watching the browser's network for the navigation the next action triggers.
+     *
+     * @param step label for timeouts and the report, e.g. "submit signup form"
+     */
+    public static NavigationWait arm(WebDriver driver, String step) {
+        return new NavigationWait(driver, step, CDP ? monitorFor(driver) : null);
+    }
+
+    /**
+     * Forget the browser's in-flight requests, e.g. when a pooled session is reset for the next flow.
+     */
+    public static void reset(WebDriver driver) {
+        NetworkMonitor monitor = MONITORS.get(driver);
+        if (monitor != null) monitor.clear();
+    }
+
+    private static NetworkMonitor monitorFor(WebDriver driver) {
+        synchronized (MONITORS) {
+            if (MONITORS.containsKey(driver)) return MONITORS.get(driver);
+            NetworkMonitor monitor = null;
+            if (driver instanceof HasDevTools) {
+                try {
+                    monitor = attach(((HasDevTools) driver).getDevTools());
+                } catch (RuntimeException e) {
+                    System.out.println("⚠️ DevTools unavailable, navigation waits will poll: " + e.getMessage());
+                }
+            }
+            MONITORS.put(driver, monitor);
+            return monitor;
+        }
+    }
+
+    private static NetworkMonitor attach(DevTools devTools) {
+        NetworkMonitor monitor = new NetworkMonitor();
+        devTools.createSessionIfThereIsNotOne();
+        devTools.addListener(event("Network.requestWillBeSent"), monitor::requestStarted);
+        devTools.addListener(event("Network.loadingFinished"), monitor::requestEnded);
+        devTools.addListener(event("Network.loadingFailed"), monitor::requestEnded);
+        devTools.addListener(event("Page.navigatedWithinDocument"), p -> monitor.activity());
+        devTools.addListener(event("Page.frameNavigated"), p -> monitor.activity());
+        devTools.send(new Command<>("Network.enable", Map.of()));
+        devTools.send(new Command<>("Page.enable", Map.of()));
+        return monitor;
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    /**
+     * Wait until the route condition holds and the network has gone quiet, in place of a fixed sleep.
+     *
+     * @param replacedSleepMs the fixed delay this wait replaces
+     * @return true if the route condition held, false on timeout
+     */
+    public boolean await(long replacedSleepMs, ReadyWait.Condition route) throws InterruptedException {
+        if (monitor == null) {
+            return ReadyWait.await(driver, step, replacedSleepMs, route);
+        }
+        long timeoutMs = StepTimeouts.timeoutFor("nav/" + step, TIMEOUT).toMillis();
+        long deadline = armedAt + timeoutMs;
+        boolean routed = false;
+        boolean idle = false;
+        try {
+            while (true) {
+                if (!routed) routed = route.holds(driver);
+                idle = monitor.idleFor(IDLE_MS, armedAt);
+                long now = System.currentTimeMillis();
+                if ((routed && idle) || now >= deadline) break;
+                long quietLeft = IDLE_MS - (now - monitor.lastActivity);
+                monitor.awaitEvent(Math.min(deadline - now, routed && quietLeft > 0 ? quietLeft : POLL_MS));
+            }
+        } finally {
+            monitor.recording = null;
+        }
+        long waited = System.currentTimeMillis() - armedAt;
+        if (routed) StepTimeouts.record("nav/" + step, waited);
+        else StepTimeouts.recordTimeout("nav/" + step);
+        record(replacedSleepMs, waited, routed);
+        if (!routed) {
+            System.out.println("⚠️ Not ready after " + waited + " ms: " + step + " (" + route.getName() + "); continuing");
+        } else if (!idle) {
+            System.out.println("⚠️ " + step + ": route changed but network still busy after " + waited + " ms; continuing");
+        }
+        return routed;
+    }
+
+    private void record(long replacedSleepMs, long waited, boolean routed) {
+        StepStats stats = STATS.computeIfAbsent(step, k -> new StepStats());
+        stats.navigations.increment();
+        stats.replacedMs.add(replacedSleepMs);
+        stats.waitedMs.add(waited);
+        if (!routed) stats.timeouts.increment();
+        Xhr slowest = null;
+        int pending = 0;
+        synchronized (xhrs) {
+            for (Xhr xhr : xhrs) {
+                long ms = xhr.durationMs();
+                if (ms < 0) { pending++; continue; }
+                stats.xhrs.increment();
+                stats.xhrMs.add(ms);
+                if (slowest == null || ms > slowest.durationMs()) slowest = xhr;
+            }
+        }
+        if (slowest != null && slowest.durationMs() > stats.slowestXhrMs) stats.slowestXhrMs = slowest.durationMs();
+        System.out.println("🌐 " + step + ": ready in " + waited + " ms, " + xhrs.size() + " XHRs"
+            + (slowest == null ? "" : ", slowest " + path(slowest.url) + " " + slowest.durationMs() + " ms")
+            + (pending > 0 ? ", " + pending + " still pending" : ""));
+    }
+
+    /** "POST https://host/api/signup?x=1" as "POST /api/signup". */
+    private static String path(String url) {
+        String shortened = url.replaceFirst("https?://[^/]+", "");
+        int query = shortened.indexOf('?');
+        return query >= 0 ? shortened.substring(0, query) : shortened;
+    }
+
+    /**
+     * Print navigations, wait time against the fixed sleeps and XHR time per step.
+     */
+    public static void printReport() {
+        if (STATS.isEmpty()) return;
+        System.out.println("============= 🌐 Navigation waits (route + network idle) =============");
+        List<Map.Entry<String, StepStats>> rows = new ArrayList<>(STATS.entrySet());
+        rows.sort(Map.Entry.comparingByKey());
+        for (Map.Entry<String, StepStats> row : rows) {
+            StepStats s = row.getValue();
+            long n = s.navigations.sum();
+            long xhrs = s.xhrs.sum();
+            System.out.println(String.format("   %-26s %4d navs, fixed %7d ms, waited %7d ms; %5d XHRs, avg %5d ms, slowest %5d ms%s",
+                row.getKey(), n, s.replacedMs.sum(), s.waitedMs.sum(), xhrs, xhrs > 0 ? s.xhrMs.sum() / xhrs : 0,
+                s.slowestXhrMs, s.timeouts.sum() > 0 ? " (" + s.timeouts.sum() + " timed out)" : ""));
+        }
+    }
+}
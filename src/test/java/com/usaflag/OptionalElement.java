@@ -0,0 +1,91 @@
+package com.usaflag;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lookups for elements that may legitimately be absent ("is there an error message?")
+ * - In fast mode (signup.lookup.mode=fast, the default) the driver's implicit wait is set to zero for the
+ *   lookup and restored afterwards, so a "no" answer costs a round trip instead of the full implicit wait
+ * - signup.lookup.mode=implicit keeps the implicit wait, to measure the old behaviour
+ * - Required elements keep using explicit waits; only optional probes should go through here
+ * - Every lookup is timed; printReport() shows time spent on negative lookups against what the
+ *   implicit wait would have cost
+ */
+public final class OptionalElement {
+
+    private static final boolean FAST = !"implicit".equalsIgnoreCase(SignupConfig.getString("signup.lookup.mode", "fast"));
+
+    private static final class ProbeStats {
+        private final LongAdder lookups = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder missMs = new LongAdder();
+        private final LongAdder implicitMs = new LongAdder();
+    }
+
+    private static final Map<String, ProbeStats> STATS = new ConcurrentHashMap<>();
+    /** Implicit wait per driver, read once so it can be restored after each fast lookup. */
+    private static final Map<WebDriver, Duration> IMPLICIT_WAITS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private OptionalElement() {}
+
+    /**
+     * The first element matching the locator, or empty if there is none right now.
+     *
+     * @param probe label for the statistics, e.g. "error message"
+     */
+    public static Optional<WebElement> find(WebDriver driver, String probe, By by) {
+        Duration implicitWait = IMPLICIT_WAITS.computeIfAbsent(driver, d -> d.manage().timeouts().getImplicitWaitTimeout());
+        boolean zeroed = FAST && !implicitWait.isZero();
+        long start = System.currentTimeMillis();
+        List<WebElement> found;
+        if (zeroed) driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        try {
+            found = driver.findElements(by);
+        } finally {
+            if (zeroed) driver.manage().timeouts().implicitlyWait(implicitWait);
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        ProbeStats stats = STATS.computeIfAbsent(probe, k -> new ProbeStats());
+        stats.lookups.increment();
+        if (found.isEmpty()) {
+            stats.misses.increment();
+            stats.missMs.add(elapsed);
+            stats.implicitMs.add(implicitWait.toMillis());
+            return Optional.empty();
+        }
+        return Optional.of(found.get(0));
+    }
+
+    /**
+     * Print lookups, misses and time spent on misses per probe, next to the cost with the implicit wait.
+     */
+    public static void printReport() {
+        if (STATS.isEmpty()) return;
+        System.out.println("============= 🔍 Optional element lookups (" + (FAST ? "fast" : "implicit wait") + " mode) =============");
+        long totalMiss = 0;
+        long totalImplicit = 0;
+        List<Map.Entry<String, ProbeStats>> rows = new ArrayList<>(STATS.entrySet());
+        rows.sort(Map.Entry.comparingByKey());
+        for (Map.Entry<String, ProbeStats> row : rows) {
+            ProbeStats s = row.getValue();
+            totalMiss += s.missMs.sum();
+            totalImplicit += s.implicitMs.sum();
+            System.out.println(String.format("   %-24s %4d lookups, %4d negative: %7d ms spent, %7d ms with implicit wait",
+                row.getKey(), s.lookups.sum(), s.misses.sum(), s.missMs.sum(), s.implicitMs.sum()));
+        }
+        System.out.println("   Negative lookups: " + totalMiss + " ms spent, " + totalImplicit + " ms with implicit wait");
+    }
+}
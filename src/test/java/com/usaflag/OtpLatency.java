@@ -0,0 +1,157 @@
+package com.usaflag;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Splits the OTP part of every signup into portal time and mail time
+ * - submitted(email) at the signup submit click, delivered(email, at) when the OTP poller gets the code, used(email)
+ *   at the OTP submit click; failed(email) when the flow ends without using it (poller timeout, failed flow)
+ * - Delivery time is the mail's arrival as the mailbox client saw it: received by the SMTP sink, or the first
+ *   YOPmail inbox check that listed it (at most signup.otp.poller.recheck.ms late)
+ * - Every submitted flow is appended to OtpLatency.csv (signup.otp.latency.file) with its outcome: used,
+ *   undelivered (no code arrived) or abandoned (code arrived, flow failed before using it)
+ * - printReport() prints a histogram of submit → delivered, delivered → used and submit → used for the run, and
+ *   counts the undelivered and abandoned flows
+ */
+public final class OtpLatency {
+
+    static final String CSV_FILE = SignupConfig.outputFile(SignupConfig.getString("signup.otp.latency.file", "OtpLatency.csv"));
+    private static final long[] BUCKET_MS = {1_000, 2_000, 5_000, 10_000, 20_000, 30_000, 60_000};
+    private static final int BAR_WIDTH = 40;
+
+    /** Submit and delivery timestamps of flows that have not used their code yet, by lower-cased address. */
+    private static final Map<String, long[]> OPEN = new ConcurrentHashMap<>();
+    private static final ConcurrentLinkedQueue<Long> SUBMIT_TO_DELIVERED = new ConcurrentLinkedQueue<>();
+    private static final ConcurrentLinkedQueue<Long> DELIVERED_TO_USED = new ConcurrentLinkedQueue<>();
+    private static final ConcurrentLinkedQueue<Long> SUBMIT_TO_USED = new ConcurrentLinkedQueue<>();
+    private static final LongAdder UNDELIVERED = new LongAdder();
+    private static final LongAdder ABANDONED = new LongAdder();
+
+    private OtpLatency() {}
+
+    /**
+     * The signup form for the address was submitted, so the portal sends the code now.
+     */
+    public static void submitted(String email) {
+        OPEN.put(key(email), new long[] {System.currentTimeMillis(), 0});
+    }
+
+    /**
+     * The mail with the address's code arrived at the given epoch millis.
+     */
+    public static void delivered(String email, long at) {
+        long[] times = OPEN.get(key(email));
+        if (times != null) times[1] = at;
+    }
+
+    /**
+     * The address's code was submitted on the verification page; closes the flow's record.
+     */
+    public static void used(String email) {
+        long[] times = OPEN.remove(key(email));
+        if (times == null) return;
+        long usedAt = System.currentTimeMillis();
+        SUBMIT_TO_USED.add(usedAt - times[0]);
+        if (times[1] == 0) {
+            // Code typed without the poller seeing its delivery time; only the total is known
+            append(email, "used", "", "", String.valueOf(usedAt - times[0]));
+            return;
+        }
+        long toDelivered = Math.max(0, times[1] - times[0]);
+        long toUsed = Math.max(0, usedAt - times[1]);
+        SUBMIT_TO_DELIVERED.add(toDelivered);
+        DELIVERED_TO_USED.add(toUsed);
+        append(email, "used", String.valueOf(toDelivered), String.valueOf(toUsed), String.valueOf(usedAt - times[0]));
+    }
+
+    /**
+     * The address's flow ended without using its code; closes the flow's record as undelivered or abandoned.
+     * Does nothing for an address that was never submitted or already closed.
+     */
+    public static void failed(String email) {
+        if (email == null) return;
+        long[] times = OPEN.remove(key(email));
+        if (times == null) return;
+        if (times[1] == 0) {
+            UNDELIVERED.increment();
+            append(email, "undelivered", "", "", "");
+            return;
+        }
+        long toDelivered = Math.max(0, times[1] - times[0]);
+        SUBMIT_TO_DELIVERED.add(toDelivered);
+        ABANDONED.increment();
+        append(email, "abandoned", String.valueOf(toDelivered), "", "");
+    }
+
+    /**
+     * Histogram and p50/p95/max of each leg for the flows of this run.
+     */
+    public static void printReport() {
+        long undelivered = UNDELIVERED.sum();
+        long abandoned = ABANDONED.sum();
+        if (SUBMIT_TO_USED.isEmpty() && undelivered == 0 && abandoned == 0 && OPEN.isEmpty()) return;
+        System.out.println("============= 📨 OTP delivery latency (" + SUBMIT_TO_USED.size() + " signups) =============");
+        System.out.println("   Code used: " + SUBMIT_TO_USED.size() + ", never delivered: " + undelivered
+            + ", delivered but not used: " + abandoned + (OPEN.isEmpty() ? "" : ", still open: " + OPEN.size()));
+        printHistogram("submit → delivered", SUBMIT_TO_DELIVERED);
+        printHistogram("delivered → used", DELIVERED_TO_USED);
+        printHistogram("submit → used", SUBMIT_TO_USED);
+        System.out.println("   Per-signup rows: " + CSV_FILE);
+    }
+
+    private static void printHistogram(String leg, ConcurrentLinkedQueue<Long> samples) {
+        if (samples.isEmpty()) return;
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        System.out.println(String.format("   %s: p50 %d ms, p95 %d ms, max %d ms", leg,
+            StepMetrics.percentile(sorted, 50), StepMetrics.percentile(sorted, 95), sorted.get(sorted.size() - 1)));
+        int[] counts = new int[BUCKET_MS.length + 1];
+        for (long ms : sorted) {
+            int b = 0;
+            while (b < BUCKET_MS.length && ms >= BUCKET_MS[b]) b++;
+            counts[b]++;
+        }
+        int most = 0;
+        int last = 0;
+        for (int b = 0; b < counts.length; b++) {
+            most = Math.max(most, counts[b]);
+            if (counts[b] > 0) last = b;
+        }
+        for (int b = 0; b <= last; b++) {
+            String label = b == 0 ? "< " + BUCKET_MS[0] / 1000 + " s"
+                : b < BUCKET_MS.length ? BUCKET_MS[b - 1] / 1000 + "-" + BUCKET_MS[b] / 1000 + " s"
+                : ">= " + BUCKET_MS[b - 1] / 1000 + " s";
+            System.out.println(String.format("      %-7s %5d %s", label, counts[b], "█".repeat(counts[b] * BAR_WIDTH / most)));
+        }
+    }
+
+    /** One row per closed flow; legs that did not happen are left empty. */
+    private static synchronized void append(String email, String outcome, String toDelivered, String toUsed, String total) {
+        File file = new File(CSV_FILE);
+        boolean header = !file.exists();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file, true))) {
+            if (header) writer.println("Timestamp,Email,SubmitToDeliveredMs,DeliveredToUsedMs,SubmitToUsedMs,Outcome");
+            String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+            writer.println(ts + "," + email + "," + toDelivered + "," + toUsed + "," + total + "," + outcome);
+        } catch (IOException e) {
+            System.err.println("Failed to write OTP latency CSV: " + e.getMessage());
+        }
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
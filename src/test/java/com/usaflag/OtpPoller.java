@@ -0,0 +1,297 @@
+package com.usaflag;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One background poller for the OTP mail of every in-flight signup
+ * - Flows register the address they wait on and get a CompletableFuture for the code; the future fails
+ *   with a RuntimeException when no code arrives within the timeout
+ * - The poller thread hands the waiting inbox checked longest ago to signup.otp.poller.threads checkers,
+ *   so inbox checks for many flows run side by side
+ * - Checks are capped by a global budget of signup.otp.poller.checks.per.second, and one inbox is not
+ *   rechecked within signup.otp.poller.recheck.ms, however many flows wait on it
+ * - expect(email) right before the click that sends the code marks the mail already in the inbox as seen,
+ *   so a reused address never gets the code of an earlier run; its inbox request takes a slot of the same budget
+ * - A flow interrupted in awaitOtp (e.g. by FlowWatchdog) withdraws its waiter instead of leaving its inbox
+ *   polled until the mail timeout
+ * - pendingCount(), and printReport() with wait times from registration to code, show mail delivery
+ *   latency apart from portal latency
+ */
+public final class OtpPoller {
+
+    /** One flow waiting for its code. */
+    private static final class Waiter {
+        private final String email;
+        private final String inbox;
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+        private final long registeredAt = System.currentTimeMillis();
+        private final long deadline;
+
+        private Waiter(String email, Duration timeout) {
+            this.email = email;
+            this.inbox = email.trim().toLowerCase(Locale.ROOT);
+            this.deadline = registeredAt + timeout.toMillis();
+        }
+    }
+
+    private static volatile OtpPoller shared;
+
+    private final MailboxClient client;
+    private final long checkIntervalMs;
+    private final long recheckMs;
+    private final List<Waiter> pending = new ArrayList<>();
+    /** Last check end per inbox with waiters, and the inboxes being checked now. Guarded by pending. */
+    private final Map<String, Long> lastCheck = new HashMap<>();
+    private final Set<String> checking = new HashSet<>();
+    private final ExecutorService checkers;
+    private final Thread dispatcher;
+    /** Earliest time the next inbox request may start. Guarded by itself. */
+    private final long[] nextCheckAt = {0};
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder codes = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final ConcurrentLinkedQueue<Long> waitMs = new ConcurrentLinkedQueue<>();
+
+    public OtpPoller(MailboxClient client, double checksPerSecond, Duration recheck, int threads) {
+        this.client = client;
+        this.checkIntervalMs = Math.max(1, Math.round(1000 / Math.max(0.1, checksPerSecond)));
+        this.recheckMs = recheck.toMillis();
+        this.checkers = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "otp-poller-check");
+            t.setDaemon(true);
+            return t;
+        });
+        this.dispatcher = new Thread(this::dispatchLoop, "otp-poller");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * The JVM-wide poller on the configured MailboxClient.
+     */
+    public static OtpPoller shared() {
+        if (shared == null) {
+            synchronized (OtpPoller.class) {
+                if (shared == null) {
+                    shared = new OtpPoller(MailboxClient.configured(),
+                        SignupConfig.getDouble("signup.otp.poller.checks.per.second", 5),
+                        Duration.ofMillis(SignupConfig.getInt("signup.otp.poller.recheck.ms", 1000)),
+                        SignupConfig.getInt("signup.otp.poller.threads", 4));
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Mark every message now in the address's inbox as seen; call it right before the action that sends the code.
+     * A failed inbox check is logged and leaves the inbox as it was.
+     */
+    public void expect(String email) {
+        try {
+            takeCheckSlot();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("⚠️ Interrupted before marking earlier mail for " + email + " as seen");
+            return;
+        }
+        try {
+            checks.increment();
+            client.skipExisting(email);
+        } catch (RuntimeException e) {
+            System.out.println("⚠️ Could not mark earlier mail for " + email + " as seen: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Start waiting for the address's next code.
+     */
+    public CompletableFuture<String> register(String email, Duration timeout) {
+        return add(email, timeout).future;
+    }
+
+    private Waiter add(String email, Duration timeout) {
+        Waiter waiter = new Waiter(email, timeout);
+        synchronized (pending) {
+            pending.add(waiter);
+            pending.notifyAll();
+        }
+        return waiter;
+    }
+
+    /**
+     * Register and block for the code, with the default mail timeout. An interrupted wait withdraws the waiter.
+     */
+    public String awaitOtp(String email) throws InterruptedException {
+        Waiter waiter = add(email, MailboxClient.DEFAULT_TIMEOUT);
+        try {
+            return waiter.future.get();
+        } catch (InterruptedException e) {
+            waiter.future.cancel(false);
+            synchronized (pending) {
+                int index = pending.indexOf(waiter);
+                if (index >= 0) remove(index);
+                pending.notifyAll();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+        } catch (CancellationException e) {
+            throw new RuntimeException("OTP wait for " + email + " was cancelled", e);
+        }
+    }
+
+    public int pendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (true) {
+            try {
+                Waiter next;
+                synchronized (pending) {
+                    while ((next = nextDue()) == null) {
+                        pending.wait(pending.isEmpty() ? 0 : Math.max(1, untilNextDue()));
+                    }
+                    checking.add(next.inbox);
+                }
+                takeCheckSlot();
+                Waiter waiter = next;
+                checkers.execute(() -> check(waiter));
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /** Reserve the next slot of the checks/sec budget and sleep until it starts. */
+    private void takeCheckSlot() throws InterruptedException {
+        long wait;
+        synchronized (nextCheckAt) {
+            long now = System.currentTimeMillis();
+            wait = nextCheckAt[0] - now;
+            nextCheckAt[0] = Math.max(now, nextCheckAt[0]) + checkIntervalMs;
+        }
+        if (wait > 0) Thread.sleep(wait);
+    }
+
+    /**
+     * Drop expired waiters and cancelled futures, then pick a waiter of the due inbox checked longest ago.
+     * Caller holds the lock.
+     */
+    private Waiter nextDue() {
+        long now = System.currentTimeMillis();
+        Waiter best = null;
+        long bestChecked = Long.MAX_VALUE;
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            Waiter w = pending.get(i);
+            boolean busy = checking.contains(w.inbox);
+            long checked = lastCheck.getOrDefault(w.inbox, 0L);
+            if (w.future.isDone()) {
+                remove(i);
+            } else if (now >= w.deadline && !busy) {
+                remove(i);
+                timeouts.increment();
+                OtpLatency.failed(w.email);
+                w.future.completeExceptionally(new RuntimeException("No verification code for " + w.email + " within "
+                    + (w.deadline - w.registeredAt) + " ms"));
+            } else if (!busy && now - checked >= recheckMs && checked <= bestChecked) {
+                best = w;
+                bestChecked = checked;
+            }
+        }
+        return best;
+    }
+
+    /** Remove the waiter, and its inbox's check time once no one else waits on it. Caller holds the lock. */
+    private void remove(int index) {
+        Waiter w = pending.remove(index);
+        if (!hasWaiter(w.inbox)) lastCheck.remove(w.inbox);
+    }
+
+    private boolean hasWaiter(String inbox) {
+        for (Waiter w : pending) {
+            if (w.inbox.equals(inbox)) return true;
+        }
+        return false;
+    }
+
+    /** Milliseconds until some waiter is due for a check or expires. Caller holds the lock. */
+    private long untilNextDue() {
+        long now = System.currentTimeMillis();
+        long soonest = Long.MAX_VALUE;
+        for (Waiter w : pending) {
+            if (checking.contains(w.inbox)) continue;
+            soonest = Math.min(soonest, Math.min(lastCheck.getOrDefault(w.inbox, 0L) + recheckMs, w.deadline) - now);
+        }
+        return soonest == Long.MAX_VALUE ? recheckMs : soonest;
+    }
+
+    private void check(Waiter waiter) {
+        String otp = null;
+        try {
+            checks.increment();
+            otp = client.pollOtp(waiter.email);
+        } catch (RuntimeException e) {
+            System.out.println("⚠️ Inbox check failed for " + waiter.email + ": " + e.getMessage());
+        } finally {
+            synchronized (pending) {
+                checking.remove(waiter.inbox);
+                int index = pending.indexOf(waiter);
+                if (otp != null && index >= 0) remove(index);
+                if (hasWaiter(waiter.inbox)) lastCheck.put(waiter.inbox, System.currentTimeMillis());
+                pending.notifyAll();
+            }
+        }
+        if (otp != null) {
+            long waited = System.currentTimeMillis() - waiter.registeredAt;
+            codes.increment();
+            waitMs.add(waited);
+            long delivered = client.deliveredAt(waiter.email);
+            OtpLatency.delivered(waiter.email, delivered > 0 ? delivered : System.currentTimeMillis());
+            System.out.println("📬 Code for " + waiter.email + " after " + waited + " ms in the mailbox queue (" + pendingCount() + " still waiting)");
+            waiter.future.complete(otp);
+        }
+    }
+
+    /**
+     * Print codes delivered, timeouts, inbox checks and the wait from registration to code.
+     */
+    public void printReport() {
+        List<Long> sorted = new ArrayList<>(waitMs);
+        if (sorted.isEmpty() && timeouts.sum() == 0) return;
+        Collections.sort(sorted);
+        System.out.println("============= 📬 OTP poller =============");
+        System.out.println(String.format("   %d codes, %d timed out, %d still waiting; %d inbox checks (%.1f per code)",
+            codes.sum(), timeouts.sum(), pendingCount(), checks.sum(), codes.sum() == 0 ? 0.0 : (double) checks.sum() / codes.sum()));
+        if (!sorted.isEmpty()) {
+            System.out.println(String.format("   Mail wait: p50 %d ms, p95 %d ms, max %d ms",
+                StepMetrics.percentile(sorted, 50), StepMetrics.percentile(sorted, 95), sorted.get(sorted.size() - 1)));
+        }
+    }
+
+    /**
+     * Report of the shared poller, if one was started.
+     */
+    public static void printSharedReport() {
+        if (shared != null) shared.printReport();
+    }
+}
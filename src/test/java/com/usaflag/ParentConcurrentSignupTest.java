@@ -1,13 +1,11 @@
 package com.usaflag;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
 
 import java.io.BufferedReader;
@@ -20,26 +18,35 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Concurrent Parent Signup Test
- * - Opens 5 browsers concurrently
- * - Each browser consumes a fresh, unique row from user_data.csv
+ * - Keeps 5 browsers busy concurrently (sliding window, no batch barrier)
+ * - signup.load.mode in config.properties switches to a ramp/step/spike profile, an adaptive (AIMD)
+ *   worker count, an open-loop arrival rate or a staged pipeline (submit / OTP / entry)
+ * - Each flow consumes a fresh, unique row from ParentConcurrentSignup.csv
+ * - Browser sessions come from a DriverPool and are reset, not restarted, between users
+ * - A FlowWatchdog kills hung browsers so one stuck flow cannot hold a worker slot for the whole run
  * - Records successful signups to ParentConcurrentSignup.csv
  */
 public class ParentConcurrentSignupTest {
 
     private static final String LOGIN_URL = "https://staging-usaflag-playerportal.azurewebsites.net/login"; // stage URL
     // private static final String LOGIN_URL = "https://prod-usaflag-player-portal.azurewebsites.net/"; // production URL
-    private static final String CSV_FILE_PATH = "ParentConcurrentSignup.csv";
-    private static final String SUCCESS_CSV_FILE_PATH = "ParentConcurrentSignup_Results.csv";
-    private static final String SUCCESS_EMAILS_CSV_FILE_PATH = "successfulParentSignup.csv";
-
-    private static class UserData {
+    static final String CSV_FILE_PATH = "ParentConcurrentSignup.csv";
+    // Written per worker in a sharded run (SignupConfig.outputFile); SignupCoordinator merges them back
+    static final String SUCCESS_CSV_FILE_PATH = SignupConfig.outputFile("ParentConcurrentSignup_Results.csv");
+    static final String SUCCESS_EMAILS_CSV_FILE_PATH = SignupConfig.outputFile("successfulParentSignup.csv");
+    static final String WARMUP_CSV_FILE_PATH = SignupConfig.outputFile("ParentConcurrentSignup_Warmup.csv");
+    private static final String CONCURRENCY_CSV_FILE_PATH = "ParentConcurrentSignup_Concurrency.csv";
+    static final String TIMED_OUT_CSV_FILE_PATH = SignupConfig.outputFile("ParentConcurrentSignup_TimedOut.csv");
+    private static final String PIPELINE_CSV_FILE_PATH = "ParentConcurrentSignup_Pipeline.csv";
+
+    /** Step timings of every flow in this JVM; feeds the adaptive concurrency controller. */
+    static final StepMetrics STEP_METRICS = new StepMetrics();
+
+    static class UserData {
         private final String firstName;
         private final String lastName;
         private final String email;
@@ -61,16 +68,16 @@ public class ParentConcurrentSignupTest {
         public String getDateOfBirth() { return dateOfBirth; }
     }
 
-    private static List<UserData> loadUserDataFromCSV() {
+    static List<UserData> loadUserDataFromCSV() {
         List<UserData> userDataList = new ArrayList<>();
         try (BufferedReader br = new BufferedReader(new FileReader(CSV_FILE_PATH))) {
             String line;
             boolean isFirst = true;
             while ((line = br.readLine()) != null) {
                 if (isFirst) { isFirst = false; continue; }
-                String[] c = line.split(",");
-                if (c.length >= 5) {
-                    userDataList.add(new UserData(c[0].trim(), c[1].trim(), c[2].trim(), c[3].trim(), c[4].trim()));
+                UserData u = parseCsvLine(line);
+                if (u != null) {
+                    userDataList.add(u);
                 }
             }
         } catch (IOException e) {
@@ -79,6 +86,15 @@ public class ParentConcurrentSignupTest {
         return userDataList;
     }
 
+    /**
+     * Parse one ParentConcurrentSignup.csv row; returns null for rows with fewer than 5 columns.
+     */
+    static UserData parseCsvLine(String line) {
+        String[] c = line.split(",");
+        if (c.length < 5) return null;
+        return new UserData(c[0].trim(), c[1].trim(), c[2].trim(), c[3].trim(), c[4].trim());
+    }
+
     private static synchronized void appendSuccessfulSignup(String email, int index, String threadName) {
         PrintWriter writer = null;
         try {
@@ -117,6 +133,25 @@ public class ParentConcurrentSignupTest {
         }
     }
 
+    private static synchronized void appendTimedOutSignup(String email, int index, String threadName, String reason) {
+        PrintWriter writer = null;
+        try {
+            java.io.File file = new java.io.File(TIMED_OUT_CSV_FILE_PATH);
+            boolean exists = file.exists();
+            writer = new PrintWriter(new FileWriter(file, true));
+            if (!exists) {
+                writer.println("Email,Timestamp,Index,Thread,Reason");
+            }
+            String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+            writer.println(email + "," + ts + "," + index + "," + threadName + ",\"" + reason.replace("\"", "'") + "\"");
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Failed to write timed-out CSV: " + e.getMessage());
+        } finally {
+            if (writer != null) writer.close();
+        }
+    }
+
     private static void initializeCsv(String path, String header) {
         PrintWriter writer = null;
         try {
@@ -131,417 +166,373 @@ public class ParentConcurrentSignupTest {
         }
     }
 
-    private static WebDriver newDriver() {
-        ChromeOptions options = new ChromeOptions();
-        WebDriverManager.chromedriver().setup();
-        WebDriver driver = new ChromeDriver(options);
-        driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        return driver;
-    }
-
     /**
      * Select the country "United States" using the specific className selector.
      */
-    private static void selectCountryUnitedStates(WebDriver driver, WebDriverWait wait) throws InterruptedException {
+    private static void selectCountryUnitedStates(WebDriver driver) {
         System.out.println("🌍 Selecting country: United States");
         
         try {
-            // Find country field by className css-19bb58m
-            WebElement countryField = wait.until(
-                ExpectedConditions.elementToBeClickable(By.className("css-19bb58m"))
-            );
-            
-            // Scroll into view to ensure it's visible
-            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", countryField);
-            Thread.sleep(300);
-            
-            // Click on the country field
-            countryField.click();
-            System.out.println("✅ Country field clicked");
-            Thread.sleep(1500); // Wait for dropdown to open and input to appear
-            
-            // Find the input field - it appears after clicking, might be in the dropdown menu
-            WebElement countryInput = null;
-            try {
-                // First try to find input with id containing react-select
-                countryInput = wait.until(ExpectedConditions.presenceOfElementLocated(
-                    By.xpath("//input[contains(@id,'react-select')]")
-                ));
-            } catch (Exception e1) {
-                try {
-                    // Try any visible input that appears after dropdown opens
-                    List<WebElement> inputs = driver.findElements(By.xpath("//input[@type='text']"));
-                    for (WebElement input : inputs) {
-                        try {
-                            if (input.isDisplayed() && input.isEnabled()) {
-                                countryInput = input;
-                                break;
-                            }
-                        } catch (Exception ignore) {}
-                    }
-                } catch (Exception e2) {
-                    // Last resort: find any input
-                    countryInput = driver.findElement(By.xpath("//input[@type='text']"));
-                }
-            }
-            
-            // Send keys "United States"
-            if (countryInput != null) {
-                countryInput.click();
-                Thread.sleep(200);
-                countryInput.clear();
-                Thread.sleep(200);
-                countryInput.sendKeys("United States");
-                System.out.println("✅ Typed 'United States' in country input");
-                Thread.sleep(2000); // Wait for dropdown options to appear and filter
-            } else {
-                throw new RuntimeException("Could not find input field after clicking country dropdown");
-            }
-            
-            // Select "United States" from dropdown (exclude "Virgin Islands" variants)
-            WebElement usOption = wait.until(
-                ExpectedConditions.elementToBeClickable(By.xpath("//div[normalize-space(text())='United States' and not(contains(text(),'Virgin'))]"))
-            );
-            
-            // Scroll option into view
-            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", usOption);
-            Thread.sleep(300);
-            
-            usOption.click();
-            System.out.println("✅ Selected 'United States' from dropdown");
-            Thread.sleep(500);
-            
+            // Open, filter and pick in one script; the exact label excludes "United States Minor Outlying Islands"
+            ReactSelect.COUNTRY.select(driver, "United States");
         } catch (Exception e) {
             System.err.println("❌ Failed to select country: " + e.getMessage());
             throw new RuntimeException("Failed to select country 'United States'", e);
         }
     }
 
-    private static void signupFlow(UserData u, int index) {
+    /**
+     * Run one complete parent signup on a pooled browser; returns true when the account was created.
+     * The watchdog kills the browser and abandons the flow when it passes its deadline or stalls in a step;
+     * such users go to ParentConcurrentSignup_TimedOut.csv for a retry.
+     */
+    static boolean signupFlow(DriverPool pool, FlowWatchdog watchdog, UserData u, int index) {
         WebDriver driver = null;
-        WebDriverWait wait = null;
+        boolean succeeded = false;
+        FlowWatchdog.Watch watch = watchdog.watch("index " + index + " (" + u.getEmail() + ")");
+        StepMetrics.FlowTrace trace = STEP_METRICS.startFlow(watch::heartbeat);
         try {
-            driver = newDriver();
-            wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-
-            // Navigate to login page
-            driver.get(LOGIN_URL);
-            wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("body")));
-            
-            // Wait for page to load completely
-            Thread.sleep(3000);
-            
-            // Find and click "Create An Account" button
-            System.out.println("🔍 [Thread " + Thread.currentThread().getName() + "] Looking for 'Create An Account' button...");
-            WebElement createAccountButton = wait.until(
-                ExpectedConditions.elementToBeClickable(By.xpath("//button[normalize-space()='Create An Account']"))
-            );
-            createAccountButton.click();
-            System.out.println("✅ 'Create An Account' button clicked successfully");
-            
-            // Wait for page navigation
-            Thread.sleep(2000);
-
-            // Find and click "Parental Sign Up" div
-            System.out.println("🔍 Looking for 'Parental Sign Up' div...");
-            WebElement parentalSignUpDiv = wait.until(
-                ExpectedConditions.elementToBeClickable(By.xpath("//div[normalize-space()='Parental Sign Up']"))
-            );
-            parentalSignUpDiv.click();
-            System.out.println("✅ 'Parental Sign Up' div clicked successfully");
-            
-            // Wait for form to load
-            Thread.sleep(2000);
-
-            // Fill first name
-            System.out.println("📝 Entering first name: " + u.getFirstName());
-            WebElement firstNameField = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("firstName")));
-            firstNameField.clear();
-            firstNameField.sendKeys(u.getFirstName());
-            System.out.println("✅ First name entered successfully");
-
-            // Fill last name
-            System.out.println("📝 Entering last name: " + u.getLastName());
-            WebElement lastNameField = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("lastName")));
-            lastNameField.clear();
-            lastNameField.sendKeys(u.getLastName());
-            System.out.println("✅ Last name entered successfully");
-
-            // Fill email
-            System.out.println("📧 Entering email: " + u.getEmail());
-            WebElement emailField = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("email")));
-            emailField.clear();
-            emailField.sendKeys(u.getEmail());
-            System.out.println("✅ Email entered successfully");
-
-            // Fill phone number
-            System.out.println("📞 Entering phone: " + u.getPhone());
-            WebElement phoneField = wait.until(
-                ExpectedConditions.presenceOfElementLocated(By.xpath("//input[@placeholder='+xx xxxx xxxxxx']"))
-            );
-            phoneField.clear();
-            phoneField.sendKeys(u.getPhone());
-            System.out.println("✅ Phone number entered successfully");
-            
-            // Wait a bit before country selection to ensure form is ready
-            Thread.sleep(500);
-
-            // Select country (robust exact match)
-            selectCountryUnitedStates(driver, wait);
-
-            // Fill date of birth
-            System.out.println("📅 Entering date of birth: " + u.getDateOfBirth());
-            WebElement dateOfBirthField = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("dateOfBirth")));
-            dateOfBirthField.clear();
-            dateOfBirthField.sendKeys(u.getDateOfBirth());
-            System.out.println("✅ Date of birth entered successfully");
-
-            // Select Male radio button
-            System.out.println("👤 Selecting Male radio button...");
-            WebElement maleRadioButton = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//input[@value='Male']")));
-            maleRadioButton.click();
-            System.out.println("✅ Male radio button selected successfully");
-
-            // Click agreement checkbox
-            System.out.println("☑️ Clicking agreement checkbox...");
-            WebElement agreementCheckbox = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//input[@name='agreement']")));
-            
-            // Scroll to checkbox to ensure it's visible
-            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", agreementCheckbox);
-            Thread.sleep(500);
-            
-            agreementCheckbox.click();
-            System.out.println("✅ Agreement checkbox clicked successfully");
-            
-            // Wait a moment for the checkbox state to be processed and button to become enabled
-            Thread.sleep(1000);
-            
-            // Click Create An Account submit button
-            System.out.println("🚀 Clicking Create An Account submit button...");
-            
-            // Try multiple approaches to find the submit button
-            WebElement submitButton = null;
-            try {
-                // Approach 1: Look for button with specific classes and text
-                submitButton = wait.until(ExpectedConditions.elementToBeClickable(
-                    By.xpath("//button[@class='shadow-md bg-dark-red text-gray-25 mt-3 w-full undefined' and @type='submit']")
-                ));
-                System.out.println("✅ Found submit button using specific class selector");
-            } catch (Exception e1) {
-                try {
-                    // Approach 2: Look for button with text "Create An Account"
-                    submitButton = wait.until(ExpectedConditions.elementToBeClickable(
-                        By.xpath("//button[contains(@class, 'shadow-md') and contains(@class, 'bg-dark-red') and contains(text(), 'Create An Account')]")
-                    ));
-                    System.out.println("✅ Found submit button using text and partial class selector");
-                } catch (Exception e2) {
-                    try {
-                        // Approach 3: Look for any button with "Create An Account" text
-                        submitButton = wait.until(ExpectedConditions.elementToBeClickable(
-                            By.xpath("//button[normalize-space()='Create An Account']")
-                        ));
-                        System.out.println("✅ Found submit button using text selector");
-                    } catch (Exception e3) {
-                        // Approach 4: Fallback to generic submit button
-                        submitButton = wait.until(ExpectedConditions.elementToBeClickable(
-                            By.xpath("//button[@type='submit']")
-                        ));
-                        System.out.println("✅ Found submit button using generic submit selector");
-                    }
-                }
-            }
-            
-            // Scroll to button to ensure it's visible
-            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", submitButton);
-            Thread.sleep(500);
-            
-            // Try to click the button, with JavaScript fallback
-            try {
-                submitButton.click();
-                System.out.println("✅ Create An Account submit button clicked successfully using regular click");
-            } catch (Exception clickError) {
-                System.out.println("⚠️ Regular click failed, trying JavaScript click...");
-                try {
-                    ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].click();", submitButton);
-                    System.out.println("✅ Create An Account submit button clicked successfully using JavaScript click");
-                } catch (Exception jsClickError) {
-                    System.out.println("❌ Both regular and JavaScript click failed: " + jsClickError.getMessage());
-                    throw jsClickError;
-                }
+            trace.step("borrow browser");
+            driver = pool.borrow();
+            watch.attach(driver);
+            WebDriverWait wait = new StepWait(driver, () -> "parent-concurrent/" + trace.currentStep(), Duration.ofSeconds(10));
+
+            submitSignupForm(driver, wait, u, trace);
+
+            // Read the OTP without a browser tab (YOPmail over HTTP or the local SMTP sink)
+            trace.step("fetch otp from mailbox");
+            String verificationCode = fetchOtp(u.getEmail());
+
+            completeSignup(driver, wait, u.getEmail(), verificationCode, trace);
+            succeeded = true;
+        } catch (Throwable t) {
+            if (watch.isTimedOut()) {
+                System.err.println("⏱️ Concurrent signup timed out for index " + index + ": " + watch.getTimeoutReason());
+            } else {
+                System.err.println("Concurrent signup failed for index " + index + ": " + t.getMessage());
             }
-            
-            // Wait for form submission
-            Thread.sleep(3000);
-
-            // YOPmail navigation to get OTP
-            String verificationEmail = u.getEmail();
-            String verificationCode = null;
-            
+        } finally {
+            succeeded = endFlow(pool, driver, watch, trace, u, index, succeeded);
+        }
+        return succeeded;
+    }
+
+    /**
+     * Stage 1: open the portal, fill the parental signup form and submit it. Leaves the browser on the
+     * verification page, waiting for the OTP.
+     */
+    static void submitSignupForm(WebDriver driver, WebDriverWait wait, UserData u, StepMetrics.FlowTrace trace)
+            throws InterruptedException {
+        // Navigate to login page
+        trace.step("open login page");
+        driver.get(LOGIN_URL);
+        wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("body")));
+        
+        // Wait for page to load completely
+        ReadyWait.await(driver, "load login page", 3000, ReadyWait.clickable("//button[normalize-space()='Create An Account']"));
+        
+        // Find and click "Create An Account" button
+        System.out.println("🔍 [Thread " + Thread.currentThread().getName() + "] Looking for 'Create An Account' button...");
+        WebElement createAccountButton = wait.until(
+            ExpectedConditions.elementToBeClickable(By.xpath("//button[normalize-space()='Create An Account']"))
+        );
+        createAccountButton.click();
+        System.out.println("✅ 'Create An Account' button clicked successfully");
+        
+        // Wait for page navigation
+        ReadyWait.await(driver, "open sign-up options", 2000, ReadyWait.routeContains("sign-up-options"));
+
+        // Find and click "Parental Sign Up" div
+        trace.step("open parental sign up");
+        System.out.println("🔍 Looking for 'Parental Sign Up' div...");
+        WebElement parentalSignUpDiv = wait.until(
+            ExpectedConditions.elementToBeClickable(By.xpath("//div[normalize-space()='Parental Sign Up']"))
+        );
+        parentalSignUpDiv.click();
+        System.out.println("✅ 'Parental Sign Up' div clicked successfully");
+        
+        // Wait for form to load
+        ReadyWait.await(driver, "load signup form", 2000, ReadyWait.present("//input[@id='firstName']"));
+
+        // Fill the text fields in one script; fields React reformats or rejects are typed instead
+        trace.step("fill signup form");
+        new FormFill("parent signup")
+            .field("first name", "//*[@id='firstName']", u.getFirstName())
+            .field("last name", "//*[@id='lastName']", u.getLastName())
+            .field("email", "//*[@id='email']", u.getEmail())
+            .field("phone", "//input[@placeholder='+xx xxxx xxxxxx']", u.getPhone())
+            .field("date of birth", "//*[@id='dateOfBirth']", u.getDateOfBirth())
+            .fill(driver, wait);
+
+        // Wait a bit before country selection to ensure form is ready
+        ReadyWait.await(driver, "country control ready", 500, ReadyWait.clickable("//*[contains(@class, 'css-19bb58m')]"));
+
+        // Select country (robust exact match)
+        trace.step("select country");
+        selectCountryUnitedStates(driver);
+
+        // Select Male radio button
+        trace.step("fill signup form details");
+        System.out.println("👤 Selecting Male radio button...");
+        WebElement maleRadioButton = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//input[@value='Male']")));
+        maleRadioButton.click();
+        System.out.println("✅ Male radio button selected successfully");
+
+        // Click agreement checkbox
+        System.out.println("☑️ Clicking agreement checkbox...");
+        WebElement agreementCheckbox = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//input[@name='agreement']")));
+        
+        // Scroll to checkbox to ensure it's visible
+        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", agreementCheckbox);
+        ReadyWait.await(driver, "scroll to agreement checkbox", 500, ReadyWait.inViewport(agreementCheckbox));
+        
+        agreementCheckbox.click();
+        System.out.println("✅ Agreement checkbox clicked successfully");
+        
+        // Wait a moment for the checkbox state to be processed and button to become enabled
+        ReadyWait.await(driver, "enable submit button", 1000, ReadyWait.submitButtonEnabled());
+        
+        // Click Create An Account submit button
+        trace.step("submit signup form");
+        System.out.println("🚀 Clicking Create An Account submit button...");
+        
+        // Check all submit button locators at once; the first clickable match wins
+        WebElement submitButton = LocatorChain.CREATE_ACCOUNT_BUTTON.find(driver, Duration.ofSeconds(10));
+        
+        // Scroll to button to ensure it's visible
+        ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", submitButton);
+        ReadyWait.await(driver, "scroll to submit button", 500, ReadyWait.inViewport(submitButton));
+        
+        // Try to click the button, with JavaScript fallback
+        OtpPoller.shared().expect(u.getEmail());
+        NavigationWait submitted = NavigationWait.arm(driver, "submit signup form");
+        OtpLatency.submitted(u.getEmail());
+        try {
+            submitButton.click();
+            System.out.println("✅ Create An Account submit button clicked successfully using regular click");
+        } catch (Exception clickError) {
+            System.out.println("⚠️ Regular click failed, trying JavaScript click...");
             try {
-                // Open new tab and navigate to YOPmail
-                System.out.println("🌐 Opening YOPmail in new tab...");
-                ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("window.open('https://yopmail.com/', '_blank');");
-                
-                // Switch to the new tab
-                java.util.Set<String> tabs = driver.getWindowHandles();
-                String[] tabArray = tabs.toArray(new String[0]);
-                driver.switchTo().window(tabArray[1]);
-                System.out.println("✅ Switched to YOPmail tab");
-                
-                // Wait for YOPmail to load
-                Thread.sleep(3000);
-                
-                // Enter email in YOPmail login field
-                System.out.println("📧 Entering email in YOPmail: " + verificationEmail);
-                WebElement yopmailInput = wait.until(ExpectedConditions.presenceOfElementLocated(By.xpath("//input[@id='login']")));
-                yopmailInput.clear();
-                yopmailInput.sendKeys(verificationEmail);
-                System.out.println("✅ Email entered in YOPmail");
-                
-                // Click the check email button
-                System.out.println("🔍 Clicking check email button...");
-                WebElement checkEmailButton = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//i[@class='material-icons-outlined f36']")));
-                checkEmailButton.click();
-                System.out.println("✅ Check email button clicked");
-                
-                // Wait for inbox to load
-                Thread.sleep(3000);
-                
-                // Find the 6-digit verification code
-                System.out.println("🔢 Looking for 6-digit verification code...");
-                
-                // Wait for the email iframe to load
-                wait.until(ExpectedConditions.presenceOfElementLocated(By.id("ifmail")));
-                
-                // Switch to the iframe containing the email content
-                driver.switchTo().frame("ifmail");
-                System.out.println("✅ Switched to email iframe");
-                
-                // Wait for email content to load
-                Thread.sleep(2000);
-                
-                // Look for the OTP element with specific styling
-                WebElement otpElement = wait.until(
-                    ExpectedConditions.presenceOfElementLocated(By.xpath("//p[contains(@style, 'font-size: 24px') and contains(@style, 'font-weight: bold')]"))
-                );
-                
-                String otpText = otpElement.getText();
-                System.out.println("📧 OTP element text: " + otpText);
-                
-                // Extract 6-digit code using regex
-                java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("\\d{6}");
-                java.util.regex.Matcher matcher = pattern.matcher(otpText);
-                if (matcher.find()) {
-                    verificationCode = matcher.group();
-                    System.out.println("✅ Found 6-digit code: " + verificationCode);
-                }
-                
-                // Switch back from iframe
-                driver.switchTo().defaultContent();
-                System.out.println("✅ Switched back from email iframe");
-                
-                // Navigate back to verification page
-                System.out.println("🔄 Navigating back to verification page...");
-                driver.switchTo().window(tabArray[0]);
-                System.out.println("✅ Switched back to verification page");
-                
-            } catch (Exception e) {
-                System.out.println("⚠️ Could not extract OTP from YOPmail: " + e.getMessage());
-                // verificationCode = "111111"; // Commented out - use actual OTP from email
-                throw new RuntimeException("Failed to extract verification code from email", e);
-            }
-            
-            if (verificationCode == null) {
-                throw new RuntimeException("Failed to extract verification code from email");
+                ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].click();", submitButton);
+                System.out.println("✅ Create An Account submit button clicked successfully using JavaScript click");
+            } catch (Exception jsClickError) {
+                System.out.println("❌ Both regular and JavaScript click failed: " + jsClickError.getMessage());
+                throw jsClickError;
             }
+        }
+        
+        // Wait for form submission
+        submitted.await(3000, ReadyWait.verificationPageShown());
+    }
 
-            // Verification page OTP input
-            WebElement otpInput = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("otp-input-0")));
-            otpInput.clear();
-            otpInput.sendKeys(verificationCode);
+    /**
+     * Stage 2: read the 6-digit signup code for the given address through the configured MailboxClient.
+     */
+    static String fetchOtp(String verificationEmail) throws InterruptedException {
+        System.out.println("📧 Waiting for the verification code sent to " + verificationEmail + "...");
+        String verificationCode = OtpPoller.shared().awaitOtp(verificationEmail);
+        System.out.println("✅ Found 6-digit code: " + verificationCode);
+        return verificationCode;
+    }
 
-            WebElement otpSubmit = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//button[@type='submit']")));
-            otpSubmit.click();
+    /**
+     * Stage 3: enter the OTP on the verification page and create the password.
+     */
+    static void completeSignup(WebDriver driver, WebDriverWait wait, String verificationEmail, String verificationCode,
+            StepMetrics.FlowTrace trace) throws InterruptedException {
+        // Verification page OTP input
+        trace.step("submit otp");
+        WebElement otpInput = DomWait.appearById(driver, "otp input", "otp-input-0", Duration.ofSeconds(10));
+        otpInput.clear();
+        otpInput.sendKeys(verificationCode);
+
+        WebElement otpSubmit = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//button[@type='submit']")));
+        NavigationWait verified = NavigationWait.arm(driver, "verify OTP");
+        otpSubmit.click();
+        OtpLatency.used(verificationEmail);
+
+        verified.await(3000, ReadyWait.passwordPageShown());
+
+        // Password creation
+        trace.step("create password");
+        WebElement pwd = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("password")));
+        pwd.clear();
+        pwd.sendKeys("12345678");
+        WebElement cpwd = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("confirmPassword")));
+        cpwd.clear();
+        cpwd.sendKeys("12345678");
+        WebElement pwdSubmit = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//button[@type='submit']")));
+        pwdSubmit.click();
+
+        ReadyWait.await(driver, "open dashboard", 2000, ReadyWait.routeLeft("create-account-password"));
+    }
 
-            Thread.sleep(3000);
+    /**
+     * Close out one flow: record the outcome (success CSVs, or the timed-out CSV when the watchdog fired),
+     * finish its trace and hand its browser back to the pool. Returns the final outcome.
+     */
+    static boolean endFlow(DriverPool pool, WebDriver driver, FlowWatchdog.Watch watch, StepMetrics.FlowTrace trace,
+                           UserData u, int index, boolean succeeded) {
+        watch.close();
+        if (watch.isTimedOut()) {
+            succeeded = false;
+            appendTimedOutSignup(u.getEmail(), index, Thread.currentThread().getName(), watch.getTimeoutReason());
+        } else if (succeeded) {
+            appendSuccessfulSignup(u.getEmail(), index, Thread.currentThread().getName());
+            appendSuccessfulEmail(u.getEmail());
+        }
+        if (!succeeded) OtpLatency.failed(u.getEmail());
+        trace.finish(succeeded);
+        pool.release(driver, succeeded);
+        return succeeded;
+    }
 
-            // Password creation
-            WebElement pwd = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("password")));
-            pwd.clear();
-            pwd.sendKeys("12345678");
-            WebElement cpwd = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("confirmPassword")));
-            cpwd.clear();
-            cpwd.sendKeys("12345678");
-            WebElement pwdSubmit = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//button[@type='submit']")));
-            pwdSubmit.click();
+    @Test
+    public void runFiveConcurrentSignups() throws InterruptedException {
+        if (!isLoadMode("closed")) {
+            System.out.println("ℹ️ signup.load.mode is not closed; skipping 5-slot run.");
+            return;
+        }
+        runClosedLoop(LoadProfile.constant(5));
+    }
 
-            Thread.sleep(2000);
+    /**
+     * Profile mode: worker slots follow signup.load.profile (ramp/step/hold/spike) while the run is
+     * in progress, so one run yields the whole capacity curve.
+     */
+    @Test
+    public void runProfiledSignups() throws InterruptedException {
+        if (!isLoadMode("profile")) {
+            System.out.println("ℹ️ signup.load.mode is not profile; skipping profiled run.");
+            return;
+        }
+        runClosedLoop(LoadProfile.parse(SignupConfig.getString("signup.load.profile", "step 5")));
+    }
 
-            appendSuccessfulSignup(u.getEmail(), index, Thread.currentThread().getName());
-            appendSuccessfulEmail(u.getEmail());
-        } catch (Throwable t) {
-            System.err.println("Concurrent signup failed for index " + index + ": " + t.getMessage());
+    /**
+     * Adaptive mode: an AIMD controller raises worker slots while p95 step latency and the failure ratio
+     * stay under target and cuts them when either goes over, so the run settles at the highest
+     * sustainable throughput.
+     */
+    @Test
+    public void runAdaptiveSignups() throws InterruptedException {
+        if (!isLoadMode("adaptive")) {
+            System.out.println("ℹ️ signup.load.mode is not adaptive; skipping adaptive run.");
+            return;
+        }
+        List<UserData> users = prepareRun();
+        SignupScheduler<UserData> scheduler = new SignupScheduler<>(1);
+        AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(scheduler, STEP_METRICS, CONCURRENCY_CSV_FILE_PATH);
+        scheduler.setWorkerSlots(controller.initialWorkers());
+        DriverPool pool = newDriverPool(controller.initialWorkers());
+        FlowWatchdog watchdog = new FlowWatchdog(pool);
+        try {
+            controller.start();
+            scheduler.run(users, (u, index) -> signupFlow(pool, watchdog, u, index));
         } finally {
-            try { if (driver != null) driver.quit(); } catch (Exception ignore) {}
+            controller.stop();
+            watchdog.shutdown();
+            pool.shutdown();
         }
     }
 
+    /**
+     * Open-loop mode: start signups at a fixed arrival rate no matter how many are still running,
+     * so server-side queueing shows up as late starts and longer flows instead of reduced load.
+     */
     @Test
-    public void runFiveConcurrentSignups() throws InterruptedException {
-        List<UserData> users = loadUserDataFromCSV();
-        if (users.isEmpty()) throw new RuntimeException("No users found in CSV");
+    public void runOpenLoopSignups() throws InterruptedException {
+        if (!isLoadMode("open")) {
+            System.out.println("ℹ️ signup.load.mode is not open; skipping open-loop run.");
+            return;
+        }
+        double ratePerMinute = SignupConfig.getDouble("signup.arrival.rate.per.minute", 30);
+        int maxInFlight = SignupConfig.getInt("signup.open.loop.max.in.flight", 40);
+        List<UserData> users = prepareRun();
+        // Default warm fleet: about one minute of arrivals, never more than the in-flight cap
+        DriverPool pool = newDriverPool(Math.min(maxInFlight, (int) Math.ceil(ratePerMinute)));
+        FlowWatchdog watchdog = new FlowWatchdog(pool);
+        try {
+            new ArrivalRateScheduler<UserData>(
+                ratePerMinute,
+                maxInFlight,
+                SignupConfig.getInt("signup.open.loop.lag.tolerance.ms", 1000)
+            ).run(users, (u, index) -> signupFlow(pool, watchdog, u, index));
+        } finally {
+            watchdog.shutdown();
+            pool.shutdown();
+        }
+    }
 
-        // Prepare CSV headers once (no dummy rows)
-        initializeCsv(SUCCESS_CSV_FILE_PATH, "Email,Timestamp,Index,Thread");
-        initializeCsv(SUCCESS_EMAILS_CSV_FILE_PATH, "Email,Timestamp");
+    /**
+     * Pipeline mode: form submission, OTP lookup and OTP entry run as separate stages with bounded queues,
+     * so browsers never wait on the mailbox and a few OTP workers poll it over HTTP for every flow.
+     */
+    @Test
+    public void runPipelinedSignups() throws InterruptedException {
+        if (!isLoadMode("pipeline")) {
+            System.out.println("ℹ️ signup.load.mode is not pipeline; skipping pipelined run.");
+            return;
+        }
+        List<UserData> users = prepareRun();
+        DriverPool pool = newDriverPool(SignupConfig.getInt("signup.pipeline.submit.workers", 5));
+        FlowWatchdog watchdog = new FlowWatchdog(pool);
+        try {
+            new SignupPipeline(pool, watchdog, PIPELINE_CSV_FILE_PATH).run(users);
+        } finally {
+            watchdog.shutdown();
+            pool.shutdown();
+        }
+    }
 
-        final int batchSize = 5;
-        final int totalUsers = users.size();
-        
-        System.out.println("🚀 Starting batch processing for " + totalUsers + " users in batches of " + batchSize);
-        
-        // Process users in batches of 5
-        for (int batchStart = 0; batchStart < totalUsers; batchStart += batchSize) {
-            int batchEnd = Math.min(batchStart + batchSize, totalUsers);
-            int currentBatch = (batchStart / batchSize) + 1;
-            int totalBatches = (int) Math.ceil((double) totalUsers / batchSize);
-            
-            System.out.println("============= 📦 Batch " + currentBatch + " / " + totalBatches + " (Users " + (batchStart + 1) + "-" + batchEnd + ") =============");
-            
-            ExecutorService pool = Executors.newFixedThreadPool(batchSize);
-            
-            // Submit tasks for current batch
-            for (int i = 0; i < batchSize && (batchStart + i) < totalUsers; i++) {
-                final int userIndex = batchStart + i;
-                pool.submit(() -> {
-                    try {
-                        signupFlow(users.get(userIndex), userIndex);
-                    } catch (Exception e) {
-                        System.err.println("❌ Error in batch " + currentBatch + " for user index " + userIndex + ": " + e.getMessage());
-                    }
-                });
-            }
-            
-            // Wait for current batch to complete
+    /**
+     * Closed-loop run: each worker slot starts the next user as soon as its flow ends,
+     * with the slot count driven by the given profile.
+     */
+    static void runClosedLoop(LoadProfile profile) throws InterruptedException {
+        List<UserData> users = prepareRun();
+        DriverPool pool = newDriverPool(profile.workersAt(0));
+        FlowWatchdog watchdog = new FlowWatchdog(pool);
+        try {
+            new SignupScheduler<UserData>(profile.workersAt(0)).run(users, (u, index) -> signupFlow(pool, watchdog, u, index), profile);
+        } finally {
+            watchdog.shutdown();
             pool.shutdown();
-            boolean finished = pool.awaitTermination(60, TimeUnit.MINUTES);
-            
-            if (!finished) {
-                System.err.println("⚠️ Batch " + currentBatch + " did not complete within timeout");
-                pool.shutdownNow();
-            } else {
-                System.out.println("✅ Batch " + currentBatch + " completed successfully");
-            }
-            
-            // Small delay between batches to avoid overwhelming the system
-            if (batchEnd < totalUsers) {
-                Thread.sleep(2000);
-            }
         }
-        
-        System.out.println("✅ All batches completed! Processed " + totalUsers + " users in total.");
     }
-}
 
+    /**
+     * Create the run's session pool and, before the measured phase starts, launch the warm fleet
+     * (driver.pool.warmup.sessions, or the given default when unset) in parallel on LOGIN_URL.
+     */
+    static DriverPool newDriverPool(int defaultWarmSessions) {
+        DriverPool pool = new DriverPool(LOGIN_URL);
+        pool.warmUp(SignupConfig.getInt("driver.pool.warmup.sessions", defaultWarmSessions), LOGIN_URL, WARMUP_CSV_FILE_PATH);
+        return pool;
+    }
+
+    @AfterClass
+    public void printReports() {
+        SignupReports.printAndSave();
+    }
+
+    static boolean isLoadMode(String mode) {
+        return mode.equalsIgnoreCase(SignupConfig.getString("signup.load.mode", "closed"));
+    }
+
+    private static List<UserData> prepareRun() {
+        List<UserData> users = loadUserDataFromCSV();
+        if (users.isEmpty()) throw new RuntimeException("No users found in CSV");
 
+        initializeResultCsvs();
+        return users;
+    }
+
+    /**
+     * Prepare CSV headers once (no dummy rows).
+     */
+    static void initializeResultCsvs() {
+        initializeCsv(SUCCESS_CSV_FILE_PATH, "Email,Timestamp,Index,Thread");
+        initializeCsv(SUCCESS_EMAILS_CSV_FILE_PATH, "Email,Timestamp");
+    }
+}
@@ -4,12 +4,11 @@ import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.BufferedReader;
@@ -17,10 +16,11 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.Random;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -30,13 +30,10 @@ import java.time.format.DateTimeFormatter;
  */
 public class ParentSignupTest {
     
-    private WebDriver driver;
-    private WebDriverWait wait;
     private List<UserData> userDataList;
-    private UserData currentUserData;
-    private String verificationEmail;
     private final boolean iterateAll = true; // iterate over all CSV rows
-    private int nextUserIndex = 0;
+    private final AtomicInteger nextUserIndex = new AtomicInteger();
+    private SignupContext<UserData> singleFlow; // browser and flow state of the step tests (priority 1-6), see singleFlow()
     
     // Configuration
     private static final String LOGIN_URL = "https://staging-usaflag-playerportal.azurewebsites.net/login"; // stage URL
@@ -75,7 +72,6 @@ public class ParentSignupTest {
         System.out.println("🔧 Setting up Parent Signup WebDriver...");
         
         WebDriverManager.chromedriver().setup();
-        initBrowser();
         
         // Load user data from CSV
         loadUserDataFromCSV();
@@ -86,16 +82,13 @@ public class ParentSignupTest {
     }
 
     /**
-     * Initialize a fresh browser instance for a single iteration.
+     * Browser of the step tests, started by the first of them; the CSV batch test opens one per row instead.
      */
-    private void initBrowser() {
-        ChromeOptions options = new ChromeOptions();
-        driver = new ChromeDriver(options);
-        driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+    private synchronized SignupContext<UserData> singleFlow() {
+        if (singleFlow == null) singleFlow = new SignupContext<>("parent", null);
+        return singleFlow;
     }
-    
+
     /**
      * Load user data from CSV file
      */
@@ -136,75 +129,13 @@ public class ParentSignupTest {
     /**
      * Select the country "United States" using the specific className selector.
      */
-    private void selectCountryUnitedStates() throws InterruptedException {
+    private void selectCountryUnitedStates(SignupContext<UserData> ctx) {
+        WebDriver driver = ctx.getDriver();
         System.out.println("🌍 Selecting country: United States");
         
         try {
-            // Find country field by className css-19bb58m
-            WebElement countryField = wait.until(
-                ExpectedConditions.elementToBeClickable(By.className("css-19bb58m"))
-            );
-            
-            // Scroll into view to ensure it's visible
-            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", countryField);
-            Thread.sleep(300);
-            
-            // Click on the country field
-            countryField.click();
-            System.out.println("✅ Country field clicked");
-            Thread.sleep(1500); // Wait for dropdown to open and input to appear
-            
-            // Find the input field - it appears after clicking, might be in the dropdown menu
-            WebElement countryInput = null;
-            try {
-                // First try to find input with id containing react-select
-                countryInput = wait.until(ExpectedConditions.presenceOfElementLocated(
-                    By.xpath("//input[contains(@id,'react-select')]")
-                ));
-            } catch (Exception e1) {
-                try {
-                    // Try any visible input that appears after dropdown opens
-                    List<WebElement> inputs = driver.findElements(By.xpath("//input[@type='text']"));
-                    for (WebElement input : inputs) {
-                        try {
-                            if (input.isDisplayed() && input.isEnabled()) {
-                                countryInput = input;
-                                break;
-                            }
-                        } catch (Exception ignore) {}
-                    }
-                } catch (Exception e2) {
-                    // Last resort: find any input
-                    countryInput = driver.findElement(By.xpath("//input[@type='text']"));
-                }
-            }
-            
-            // Send keys "United States"
-            if (countryInput != null) {
-                countryInput.click();
-                Thread.sleep(200);
-                countryInput.clear();
-                Thread.sleep(200);
-                countryInput.sendKeys("United States");
-                System.out.println("✅ Typed 'United States' in country input");
-                Thread.sleep(2000); // Wait for dropdown options to appear and filter
-            } else {
-                throw new RuntimeException("Could not find input field after clicking country dropdown");
-            }
-            
-            // Select "United States" from dropdown (exclude "Virgin Islands" variants)
-            WebElement usOption = wait.until(
-                ExpectedConditions.elementToBeClickable(By.xpath("//div[normalize-space(text())='United States' and not(contains(text(),'Virgin'))]"))
-            );
-            
-            // Scroll option into view
-            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", usOption);
-            Thread.sleep(300);
-            
-            usOption.click();
-            System.out.println("✅ Selected 'United States' from dropdown");
-            Thread.sleep(500);
-            
+            // Open, filter and pick in one script; the exact label excludes "United States Minor Outlying Islands"
+            ReactSelect.COUNTRY.select(driver, "United States");
         } catch (Exception e) {
             System.err.println("❌ Failed to select country: " + e.getMessage());
             throw new RuntimeException("Failed to select country 'United States'", e);
@@ -214,7 +145,7 @@ public class ParentSignupTest {
     /**
      * Append a successful signup record to CSV (creates header if file doesn't exist)
      */
-    private void appendSuccessfulSignup(String email) {
+    private synchronized void appendSuccessfulSignup(String email) {
         PrintWriter writer = null;
         try {
             java.io.File file = new java.io.File(SUCCESS_CSV_FILE_PATH);
@@ -280,9 +211,8 @@ public class ParentSignupTest {
             return userDataList.get(userIndex);
         }
         if (iterateAll) {
-            int index = nextUserIndex % userDataList.size();
+            int index = nextUserIndex.getAndIncrement() % userDataList.size();
             System.out.println("📋 Using sequential user data (index " + index + ")");
-            nextUserIndex++;
             return userDataList.get(index);
         }
         Random random = new Random();
@@ -291,40 +221,54 @@ public class ParentSignupTest {
         return userDataList.get(randomIndex);
     }
     
-    @Test(priority = 0, enabled = true)
-    public void runAllCsvSignups() {
+    /**
+     * One row per CSV user. parallel = true: TestNG runs data-provider-thread-count rows at once
+     * (testng.xml), each on its own browser.
+     */
+    @DataProvider(name = "csvUsers", parallel = true)
+    public Object[][] csvUsers() {
         if (!iterateAll) {
             System.out.println("ℹ️ iterateAll=false; skipping batch run.");
-            return;
+            return new Object[0][];
         }
         System.out.println("🚀 Starting batch signup for " + userDataList.size() + " users from CSV");
-        // Close any existing browser from setup to start clean per iteration
-        try { if (driver != null) { driver.quit(); } } catch (Exception ignore) {}
-        for (int i = 0; i < userDataList.size(); i++) {
-            try {
-                System.out.println("============= 🚩 User #" + (i + 1) + " / " + userDataList.size() + " =============");
-                nextUserIndex = i; // ensure deterministic order
-                // Fresh browser per iteration for speed/stability
-                initBrowser();
-                testOpenLoginAndClickCreateAccount();
-                testClickParentalSignUp();
-                testFillParentSignupForm();
-                testVerifyParentSignupSubmission();
-                testEmailVerification();
-                testCreateAccountPassword();
-            } catch (Throwable t) {
-                System.out.println("⚠️ Error during signup for index " + i + ": " + t.getMessage());
-                // continue to next user
-            } finally {
-                // Always close the browser after each iteration
-                try { if (driver != null) { driver.quit(); } } catch (Exception ignore) {}
-            }
+        Object[][] rows = new Object[userDataList.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[]{i, userDataList.get(i)};
+        }
+        return rows;
+    }
+
+    @Test(priority = 0, dataProvider = "csvUsers")
+    public void runAllCsvSignups(int index, UserData user) {
+        System.out.println("============= 🚩 User #" + (index + 1) + " / " + userDataList.size()
+            + " [" + Thread.currentThread().getName() + "] =============");
+        // Fresh browser per user; the context keeps this flow apart from the rows running beside it
+        SignupContext<UserData> ctx = new SignupContext<>("parent", user);
+        try {
+            openLoginAndClickCreateAccount(ctx);
+            clickParentalSignUp(ctx);
+            fillParentSignupForm(ctx);
+            verifyParentSignupSubmission(ctx);
+            emailVerification(ctx);
+            createAccountPassword(ctx);
+        } catch (RuntimeException e) {
+            System.out.println("⚠️ Error during signup for index " + index + ": " + e.getMessage());
+            OtpLatency.failed(ctx.getVerificationEmail());
+            throw e;
+        } finally {
+            ctx.close();
         }
-        System.out.println("✅ Batch signup process completed.");
     }
     
     @Test(priority = 1)
     public void testOpenLoginAndClickCreateAccount() {
+        openLoginAndClickCreateAccount(singleFlow());
+    }
+
+    private void openLoginAndClickCreateAccount(SignupContext<UserData> ctx) {
+        WebDriver driver = ctx.getDriver();
+        WebDriverWait wait = ctx.getWait("openLoginAndClickCreateAccount");
         System.out.println("🔍 Test 1: Opening login page and clicking Create An Account...");
         
         try {
@@ -339,7 +283,7 @@ public class ParentSignupTest {
             System.out.println("✅ Current URL: " + currentUrl);
             
             // Wait for page to load completely
-            Thread.sleep(3000);
+            ReadyWait.await(driver, "load login page", 3000, ReadyWait.clickable("//button[normalize-space()='Create An Account']"));
             
             // Find and click "Create An Account" button
             System.out.println("🔍 Looking for 'Create An Account' button...");
@@ -350,7 +294,7 @@ public class ParentSignupTest {
             System.out.println("✅ 'Create An Account' button clicked successfully");
             
             // Wait for page navigation
-            Thread.sleep(2000);
+            ReadyWait.await(driver, "open sign-up options", 2000, ReadyWait.routeContains("sign-up-options"));
             
             System.out.println("✅ Test 1 PASSED - Login page opened and Create An Account clicked");
             
@@ -362,6 +306,12 @@ public class ParentSignupTest {
     
     @Test(priority = 2)
     public void testClickParentalSignUp() {
+        clickParentalSignUp(singleFlow());
+    }
+
+    private void clickParentalSignUp(SignupContext<UserData> ctx) {
+        WebDriver driver = ctx.getDriver();
+        WebDriverWait wait = ctx.getWait("clickParentalSignUp");
         System.out.println("🔍 Test 2: Clicking on Parental Sign Up...");
         
         try {
@@ -374,7 +324,7 @@ public class ParentSignupTest {
             System.out.println("✅ 'Parental Sign Up' div clicked successfully");
             
             // Wait for form to load
-            Thread.sleep(2000);
+            ReadyWait.await(driver, "load signup form", 2000, ReadyWait.present("//input[@id='firstName']"));
             
             System.out.println("✅ Test 2 PASSED - Parental Sign Up clicked");
             
@@ -386,10 +336,16 @@ public class ParentSignupTest {
     
     @Test(priority = 3)
     public void testFillParentSignupForm() {
+        singleFlow().setUser(getUserData(null));
+        fillParentSignupForm(singleFlow());
+    }
+
+    private void fillParentSignupForm(SignupContext<UserData> ctx) {
+        WebDriver driver = ctx.getDriver();
+        WebDriverWait wait = ctx.getWait("fillParentSignupForm");
+        UserData currentUserData = ctx.getUser();
         System.out.println("🔍 Test 3: Filling out parent signup form...");
         
-        // Load user data from CSV
-        currentUserData = getUserData(null); // Use random user
         System.out.println("📋 Using CSV user data:");
         System.out.println("   First Name: " + currentUserData.getFirstName());
         System.out.println("   Last Name: " + currentUserData.getLastName());
@@ -398,48 +354,20 @@ public class ParentSignupTest {
         System.out.println("   Date of Birth: " + currentUserData.getDateOfBirth());
         
         try {
-            // Fill first name
-            System.out.println("📝 Entering first name: " + currentUserData.getFirstName());
-            WebElement firstNameField = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("firstName")));
-            firstNameField.clear();
-            firstNameField.sendKeys(currentUserData.getFirstName());
-            System.out.println("✅ First name entered successfully");
-            
-            // Fill last name
-            System.out.println("📝 Entering last name: " + currentUserData.getLastName());
-            WebElement lastNameField = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("lastName")));
-            lastNameField.clear();
-            lastNameField.sendKeys(currentUserData.getLastName());
-            System.out.println("✅ Last name entered successfully");
-            
-            // Fill email
-            System.out.println("📧 Entering email: " + currentUserData.getEmail());
-            WebElement emailField = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("email")));
-            emailField.clear();
-            emailField.sendKeys(currentUserData.getEmail());
-            System.out.println("✅ Email entered successfully");
-            
+            // Fill the text fields in one script; fields React reformats or rejects are typed instead
+            new FormFill("parent signup")
+                .field("first name", "//*[@id='firstName']", currentUserData.getFirstName())
+                .field("last name", "//*[@id='lastName']", currentUserData.getLastName())
+                .field("email", "//*[@id='email']", currentUserData.getEmail())
+                .field("phone", "//input[@placeholder='+xx xxxx xxxxxx']", currentUserData.getPhone())
+                .field("date of birth", "//*[@id='dateOfBirth']", currentUserData.getDateOfBirth())
+                .fill(driver, wait);
+
             // Store email for verification
-            verificationEmail = currentUserData.getEmail();
-            
-            // Fill phone number
-            System.out.println("📞 Entering phone: " + currentUserData.getPhone());
-            WebElement phoneField = wait.until(
-                ExpectedConditions.presenceOfElementLocated(By.xpath("//input[@placeholder='+xx xxxx xxxxxx']"))
-            );
-            phoneField.clear();
-            phoneField.sendKeys(currentUserData.getPhone());
-            System.out.println("✅ Phone number entered successfully");
+            ctx.setVerificationEmail(currentUserData.getEmail());
             
             // Select country (robust exact match)
-            selectCountryUnitedStates();
-            
-            // Fill date of birth
-            System.out.println("📅 Entering date of birth: " + currentUserData.getDateOfBirth());
-            WebElement dateOfBirthField = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("dateOfBirth")));
-            dateOfBirthField.clear();
-            dateOfBirthField.sendKeys(currentUserData.getDateOfBirth());
-            System.out.println("✅ Date of birth entered successfully");
+            selectCountryUnitedStates(ctx);
             
             // Select Male radio button
             System.out.println("👤 Selecting Male radio button...");
@@ -453,54 +381,28 @@ public class ParentSignupTest {
             
             // Scroll to checkbox to ensure it's visible
             ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", agreementCheckbox);
-            Thread.sleep(500);
+            ReadyWait.await(driver, "scroll to agreement checkbox", 500, ReadyWait.inViewport(agreementCheckbox));
             
             agreementCheckbox.click();
             System.out.println("✅ Agreement checkbox clicked successfully");
             
             // Wait a moment for the checkbox state to be processed and button to become enabled
-            Thread.sleep(1000);
+            ReadyWait.await(driver, "enable submit button", 1000, ReadyWait.submitButtonEnabled());
             
             // Click Create An Account submit button
             System.out.println("🚀 Clicking Create An Account submit button...");
             
-            // Try multiple approaches to find the submit button
-            WebElement submitButton = null;
-            try {
-                // Approach 1: Look for button with specific classes and text
-                submitButton = wait.until(ExpectedConditions.elementToBeClickable(
-                    By.xpath("//button[@class='shadow-md bg-dark-red text-gray-25 mt-3 w-full undefined' and @type='submit']")
-                ));
-                System.out.println("✅ Found submit button using specific class selector");
-            } catch (Exception e1) {
-                try {
-                    // Approach 2: Look for button with text "Create An Account"
-                    submitButton = wait.until(ExpectedConditions.elementToBeClickable(
-                        By.xpath("//button[contains(@class, 'shadow-md') and contains(@class, 'bg-dark-red') and contains(text(), 'Create An Account')]")
-                    ));
-                    System.out.println("✅ Found submit button using text and partial class selector");
-                } catch (Exception e2) {
-                    try {
-                        // Approach 3: Look for any button with "Create An Account" text
-                        submitButton = wait.until(ExpectedConditions.elementToBeClickable(
-                            By.xpath("//button[normalize-space()='Create An Account']")
-                        ));
-                        System.out.println("✅ Found submit button using text selector");
-                    } catch (Exception e3) {
-                        // Approach 4: Fallback to generic submit button
-                        submitButton = wait.until(ExpectedConditions.elementToBeClickable(
-                            By.xpath("//button[@type='submit']")
-                        ));
-                        System.out.println("✅ Found submit button using generic submit selector");
-                    }
-                }
-            }
+            // Check all submit button locators at once; the first clickable match wins
+            WebElement submitButton = LocatorChain.CREATE_ACCOUNT_BUTTON.find(driver, Duration.ofSeconds(10));
             
             // Scroll to button to ensure it's visible
             ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", submitButton);
-            Thread.sleep(500);
+            ReadyWait.await(driver, "scroll to submit button", 500, ReadyWait.inViewport(submitButton));
             
             // Try to click the button, with JavaScript fallback
+            OtpPoller.shared().expect(ctx.getVerificationEmail());
+            NavigationWait submitted = NavigationWait.arm(driver, "submit signup form");
+            OtpLatency.submitted(ctx.getVerificationEmail());
             try {
                 submitButton.click();
                 System.out.println("✅ Create An Account submit button clicked successfully using regular click");
@@ -516,7 +418,7 @@ public class ParentSignupTest {
             }
             
             // Wait for form submission
-            Thread.sleep(3000);
+            submitted.await(3000, ReadyWait.verificationPageShown());
             
             System.out.println("✅ Test 3 PASSED - Parent signup form filled and submitted successfully");
             
@@ -528,11 +430,16 @@ public class ParentSignupTest {
     
     @Test(priority = 4)
     public void testVerifyParentSignupSubmission() {
+        verifyParentSignupSubmission(singleFlow());
+    }
+
+    private void verifyParentSignupSubmission(SignupContext<UserData> ctx) {
+        WebDriver driver = ctx.getDriver();
         System.out.println("🔍 Test 4: Verifying parent signup submission...");
         
         try {
             // Wait a moment for form processing
-            Thread.sleep(3000);
+            ReadyWait.await(driver, "confirm signup submission", 3000, ReadyWait.verificationPageShown());
             
             // Get current URL to see if we're redirected
             String currentUrl = driver.getCurrentUrl();
@@ -547,19 +454,13 @@ public class ParentSignupTest {
                 System.out.println("ℹ️ Still on signup page - checking for success/error messages");
                 
                 // Look for success or error messages
-                try {
-                    WebElement successMessage = driver.findElement(By.xpath("//div[contains(@class, 'success') or contains(text(), 'success')]"));
-                    System.out.println("✅ Success message found: " + successMessage.getText());
-                } catch (Exception e) {
-                    System.out.println("ℹ️ No success message found");
-                }
+                OptionalElement.find(driver, "signup success message", By.xpath("//div[contains(@class, 'success') or contains(text(), 'success')]")).ifPresentOrElse(
+                    successMessage -> System.out.println("✅ Success message found: " + successMessage.getText()),
+                    () -> System.out.println("ℹ️ No success message found"));
                 
-                try {
-                    WebElement errorMessage = driver.findElement(By.xpath("//div[contains(@class, 'error') or contains(text(), 'error')]"));
-                    System.out.println("⚠️ Error message found: " + errorMessage.getText());
-                } catch (Exception e) {
-                    System.out.println("ℹ️ No error message found");
-                }
+                OptionalElement.find(driver, "signup error message", By.xpath("//div[contains(@class, 'error') or contains(text(), 'error')]")).ifPresentOrElse(
+                    errorMessage -> System.out.println("⚠️ Error message found: " + errorMessage.getText()),
+                    () -> System.out.println("ℹ️ No error message found"));
             } else {
                 System.out.println("✅ Successfully redirected from signup page");
                 System.out.println("✅ Parent signup appears to be successful");
@@ -575,6 +476,13 @@ public class ParentSignupTest {
     
     @Test(priority = 5)
     public void testEmailVerification() {
+        emailVerification(singleFlow());
+    }
+
+    private void emailVerification(SignupContext<UserData> ctx) {
+        WebDriver driver = ctx.getDriver();
+        WebDriverWait wait = ctx.getWait("emailVerification");
+        String verificationEmail = ctx.getVerificationEmail();
         System.out.println("🔍 Test 5: Starting email verification process...");
         
         try {
@@ -593,113 +501,32 @@ public class ParentSignupTest {
                 System.out.println("⚠️ Email mismatch - Expected: " + verificationEmail + ", Found: " + emailText);
             }
             
-            // Step 2: Open new tab and navigate to YOPmail
-            System.out.println("🌐 Step 2: Opening YOPmail in new tab...");
-            ((org.openqa.selenium.JavascriptExecutor) driver).executeScript("window.open('https://yopmail.com/', '_blank');");
+            // Step 2: Wait for the verification code to land in the mailbox (YOPmail over HTTP or the local SMTP sink)
+            System.out.println("📧 Step 2: Waiting for the verification code sent to " + verificationEmail + "...");
+            String verificationCode = OtpPoller.shared().awaitOtp(verificationEmail);
+            System.out.println("✅ Found 6-digit code: " + verificationCode);
             
-            // Switch to the new tab
-            java.util.Set<String> tabs = driver.getWindowHandles();
-            String[] tabArray = tabs.toArray(new String[tabs.size()]);
-            driver.switchTo().window(tabArray[1]);
-            System.out.println("✅ Switched to YOPmail tab");
-            
-            // Wait for YOPmail to load
-            Thread.sleep(3000);
-            
-            // Step 3: Enter email in YOPmail login field
-            System.out.println("📧 Step 3: Entering email in YOPmail: " + verificationEmail);
-            WebElement yopmailInput = wait.until(ExpectedConditions.presenceOfElementLocated(By.xpath("//input[@id='login']")));
-            yopmailInput.clear();
-            yopmailInput.sendKeys(verificationEmail);
-            System.out.println("✅ Email entered in YOPmail");
-            
-            // Step 4: Click the check email button
-            System.out.println("🔍 Step 4: Clicking check email button...");
-            WebElement checkEmailButton = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//i[@class='material-icons-outlined f36']")));
-            checkEmailButton.click();
-            System.out.println("✅ Check email button clicked");
-            
-            // Wait for inbox to load
-            Thread.sleep(3000);
-            
-            // Step 5: Find the 6-digit verification code
-            System.out.println("🔢 Step 5: Looking for 6-digit verification code...");
-            String verificationCode = null;
-            
-            try {
-                // Wait for the email iframe to load
-                System.out.println("📧 Waiting for email iframe to load...");
-                wait.until(ExpectedConditions.presenceOfElementLocated(By.id("ifmail")));
-                
-                // Switch to the iframe containing the email content
-                driver.switchTo().frame("ifmail");
-                System.out.println("✅ Switched to email iframe");
-                
-                // Wait for email content to load
-                Thread.sleep(2000);
-                
-                // Look for the OTP element with specific styling
-                System.out.println("🔍 Looking for OTP element with specific styling...");
-                WebElement otpElement = wait.until(
-                    ExpectedConditions.presenceOfElementLocated(By.xpath("//p[contains(@style, 'font-size: 24px') and contains(@style, 'font-weight: bold')]"))
-                );
-                
-                String otpText = otpElement.getText();
-                System.out.println("📧 OTP element text: " + otpText);
-                
-                // Extract 6-digit code using regex
-                java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("\\d{6}");
-                java.util.regex.Matcher matcher = pattern.matcher(otpText);
-                if (matcher.find()) {
-                    verificationCode = matcher.group();
-                    System.out.println("✅ Found 6-digit code: " + verificationCode);
-                } else {
-                    System.out.println("⚠️ No 6-digit code found in OTP element");
-                }
-                
-                // Switch back from iframe
-                driver.switchTo().defaultContent();
-                System.out.println("✅ Switched back from email iframe");
-                
-            } catch (Exception e) {
-                System.out.println("⚠️ Could not find code in iframe");
-                // verificationCode = "111111"; // Commented out - use actual OTP from email
-            }
-            
-            if (verificationCode == null) {
-                System.out.println("⚠️ Could not find verification code");
-                // verificationCode = "111111"; // Commented out - use actual OTP from email
-                throw new RuntimeException("Failed to extract verification code from email");
-            }
-            
-            // Use hardcoded OTP instead
-            // verificationCode = "111111";
-            // System.out.println("🔢 Using hardcoded OTP: " + verificationCode);
-            
-            // Step 6: Navigate back to verification page
-            System.out.println("🔄 Step 6: Navigating back to verification page...");
-            driver.switchTo().window(tabArray[0]);
-            System.out.println("✅ Switched back to verification page");
-            
-            // Step 7: Enter verification code
-            System.out.println("🔢 Step 7: Entering verification code: " + verificationCode);
-            WebElement otpInput = wait.until(ExpectedConditions.presenceOfElementLocated(By.id("otp-input-0")));
+            // Step 3: Enter verification code
+            System.out.println("🔢 Step 3: Entering verification code: " + verificationCode);
+            WebElement otpInput = DomWait.appearById(driver, "otp input", "otp-input-0", Duration.ofSeconds(10));
             otpInput.click();
             otpInput.clear();
             otpInput.sendKeys(verificationCode);
             System.out.println("✅ Verification code entered");
             
             // Wait a moment for the code to be processed
-            Thread.sleep(1000);
+            ReadyWait.await(driver, "accept OTP", 1000, ReadyWait.submitButtonEnabled());
             
-            // Step 8: Click submit button
-            System.out.println("🚀 Step 8: Clicking submit button...");
+            // Step 4: Click submit button
+            System.out.println("🚀 Step 4: Clicking submit button...");
             WebElement submitButton = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//button[@type='submit']")));
+            NavigationWait verified = NavigationWait.arm(driver, "verify OTP");
             submitButton.click();
+            OtpLatency.used(verificationEmail);
             System.out.println("✅ Submit button clicked");
             
             // Wait for verification to complete
-            Thread.sleep(5000);
+            verified.await(5000, ReadyWait.passwordPageShown());
             
             // Check if verification was successful
             String currentUrl = driver.getCurrentUrl();
@@ -711,13 +538,9 @@ public class ParentSignupTest {
                 System.out.println("⚠️ Still on verification page - checking for error messages...");
                 
                 // Look for error messages
-                try {
-                    WebElement errorMessage = driver.findElement(By.xpath("//div[contains(@class, 'error') or contains(text(), 'error') or contains(text(), 'invalid')]"));
-                    String errorText = errorMessage.getText();
-                    System.out.println("⚠️ Error message found: " + errorText);
-                } catch (Exception e) {
-                    System.out.println("ℹ️ No error message found");
-                }
+                OptionalElement.find(driver, "otp error message", By.xpath("//div[contains(@class, 'error') or contains(text(), 'error') or contains(text(), 'invalid')]")).ifPresentOrElse(
+                    errorMessage -> System.out.println("⚠️ Error message found: " + errorMessage.getText()),
+                    () -> System.out.println("ℹ️ No error message found"));
             } else {
                 System.out.println("ℹ️ OTP verification completed - redirected to unexpected page");
             }
@@ -726,17 +549,24 @@ public class ParentSignupTest {
             
         } catch (Exception e) {
             System.err.println("❌ Test 5 FAILED: " + e.getMessage());
+            OtpLatency.failed(ctx.getVerificationEmail());
             throw new RuntimeException("Test 5 failed", e);
         }
     }
     
     @Test(priority = 6)
     public void testCreateAccountPassword() {
+        createAccountPassword(singleFlow());
+    }
+
+    private void createAccountPassword(SignupContext<UserData> ctx) {
+        WebDriver driver = ctx.getDriver();
+        WebDriverWait wait = ctx.getWait("createAccountPassword");
         System.out.println("🔍 Test 6: Creating account password...");
         
         try {
             // Wait for password creation page to load
-            Thread.sleep(2000);
+            ReadyWait.await(driver, "load password page", 2000, ReadyWait.present("//input[@id='password']"));
             
             // Check if we're on the password creation page
             String currentUrl = driver.getCurrentUrl();
@@ -763,7 +593,7 @@ public class ParentSignupTest {
             System.out.println("✅ Confirm password entered successfully");
             
             // Wait a moment for the form to process
-            Thread.sleep(1000);
+            ReadyWait.await(driver, "validate password form", 1000, ReadyWait.submitButtonEnabled());
             
             // Step 3: Click submit button
             System.out.println("🚀 Step 3: Clicking submit button...");
@@ -773,11 +603,11 @@ public class ParentSignupTest {
             
             // Wait briefly for page transition
             System.out.println("⏳ Waiting for page to load...");
-            Thread.sleep(2000);
+            ReadyWait.await(driver, "open dashboard", 2000, ReadyWait.routeLeft("create-account-password"));
             
             // Immediately verify and record success if name/email found
             System.out.println("🔍 Verifying name/email on dashboard...");
-            verifyEmailWithinOneSecondOrFailAndRecord();
+            verifyEmailWithinOneSecondOrFailAndRecord(ctx);
             
             System.out.println("✅ Test 6 PASSED - Account password created successfully");
             
@@ -791,101 +621,22 @@ public class ParentSignupTest {
      * After reaching dashboard, ensure the user's email or name appears.
      * If found, record success; otherwise, fail fast for this iteration.
      */
-    private void verifyEmailWithinOneSecondOrFailAndRecord() {
+    private void verifyEmailWithinOneSecondOrFailAndRecord(SignupContext<UserData> ctx) {
+        WebDriver driver = ctx.getDriver();
+        UserData currentUserData = ctx.getUser();
+        String verificationEmail = ctx.getVerificationEmail();
         try {
-            String expectedFullName = currentUserData.getFirstName() + " " + currentUserData.getLastName();
-            String firstName = currentUserData.getFirstName();
-            String lastName = currentUserData.getLastName();
-            
-            // Check for full name in h2 heading (most reliable and fastest match)
-            try {
-                WebElement nameHeading = driver.findElement(By.xpath("//h2[contains(@class, 'text-2xl')][contains(normalize-space(text()), '" + expectedFullName + "')]"));
-                if (nameHeading != null && nameHeading.isDisplayed()) {
-                    System.out.println("✅ Full name found in heading: " + expectedFullName);
-                    appendSuccessfulSignup(verificationEmail);
-                    return;
-                }
-            } catch (Exception ex) {
-                // Full name not found in h2, try other methods
-            }
-            
-            // Check for first name in h2 heading
-            try {
-                WebElement firstNameHeading = driver.findElement(By.xpath("//h2[contains(@class, 'text-2xl')][contains(normalize-space(text()), '" + firstName + "')]"));
-                if (firstNameHeading != null && firstNameHeading.isDisplayed()) {
-                    System.out.println("✅ First name found in heading: " + firstName);
-                    appendSuccessfulSignup(verificationEmail);
-                    return;
-                }
-            } catch (Exception ex) {
-                // First name not found in h2
-            }
-            
-            // Check for last name in h2 heading
-            try {
-                WebElement lastNameHeading = driver.findElement(By.xpath("//h2[contains(@class, 'text-2xl')][contains(normalize-space(text()), '" + lastName + "')]"));
-                if (lastNameHeading != null && lastNameHeading.isDisplayed()) {
-                    System.out.println("✅ Last name found in heading: " + lastName);
-                    appendSuccessfulSignup(verificationEmail);
-                    return;
-                }
-            } catch (Exception ex) {
-                // Last name not found in h2
-            }
-            
-            // Also check for full name in any element (fallback)
-            try {
-                WebElement nameElement = driver.findElement(By.xpath("//*[normalize-space(text())='" + expectedFullName + "']"));
-                if (nameElement != null && nameElement.isDisplayed()) {
-                    System.out.println("✅ Full name found on dashboard: " + expectedFullName);
-                    appendSuccessfulSignup(verificationEmail);
-                    return;
-                }
-            } catch (Exception ex) {
-                // Full name not found
-            }
-            
-            // Check for first or last name in any element (fallback)
-            try {
-                WebElement firstNameElement = driver.findElement(By.xpath("//*[normalize-space(text())='" + firstName + "']"));
-                if (firstNameElement != null && firstNameElement.isDisplayed()) {
-                    System.out.println("✅ First name found on dashboard: " + firstName);
-                    appendSuccessfulSignup(verificationEmail);
-                    return;
-                }
-            } catch (Exception ex) {
-                // First name not found
-            }
-            
-            try {
-                WebElement lastNameElement = driver.findElement(By.xpath("//*[normalize-space(text())='" + lastName + "']"));
-                if (lastNameElement != null && lastNameElement.isDisplayed()) {
-                    System.out.println("✅ Last name found on dashboard: " + lastName);
-                    appendSuccessfulSignup(verificationEmail);
-                    return;
-                }
-            } catch (Exception ex) {
-                // Last name not found
-            }
-            
-            // Check for email
-            try {
-                List<WebElement> emailElems = driver.findElements(By.xpath("//*[normalize-space(text())='" + verificationEmail + "']"));
-                if (emailElems != null && !emailElems.isEmpty()) {
-                    for (WebElement e : emailElems) {
-                        if (e.isDisplayed()) {
-                            System.out.println("✅ Email visible on dashboard: " + verificationEmail);
-                            appendSuccessfulSignup(verificationEmail);
-                            return;
-                        }
-                    }
-                }
-            } catch (Exception ex) {
-                // Email not found
+            // All name/email checks in one script, bounded by the verification budget
+            DashboardProbe.Result probe = DashboardProbe.probe(driver, currentUserData.getFirstName(),
+                currentUserData.getLastName(), verificationEmail, false);
+            if (probe.isVerified()) {
+                System.out.println("✅ Found " + probe.getMatch() + " in " + probe.getElapsedMs() + " ms");
+                appendSuccessfulSignup(verificationEmail);
+                return;
             }
             
             // If nothing found, fail
-            throw new RuntimeException("Neither email nor name visible on dashboard");
+            throw new RuntimeException("Neither email nor name visible on dashboard: " + probe);
         } catch (Exception ex) {
             System.err.println("❌ Email/Name verification failed: " + ex.getMessage());
             throw new RuntimeException("Email/Name verification failed", ex);
@@ -897,7 +648,8 @@ public class ParentSignupTest {
         System.out.println("🔍 Parent signup browser will remain open for inspection...");
         System.out.println("✅ Tests completed - Browser window remains open");
         System.out.println("💡 Close the browser manually when done inspecting");
-        System.out.println("📧 The email used: " + verificationEmail);
+        if (singleFlow != null) System.out.println("📧 The email used: " + singleFlow.getVerificationEmail());
+        SignupReports.printAndSave();
         
         // Uncomment the line below if you want to close the browser automatically
         // if (driver != null) {
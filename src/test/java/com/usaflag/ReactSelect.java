@@ -0,0 +1,188 @@
+package com.usaflag;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Driver for searchable dropdowns (react-select, and search-box pickers such as the event time zone)
+ * - select() is one executeAsyncScript call: open the control, type the query through the native value
+ *   setter, wait (MutationObserver) for the option, click it and wait for the menu to close
+ * - The option list seen on first open is cached per dropdown; later selections resolve the exact
+ *   option label from the cache ("United States", not "United States Minor Outlying Islands") before opening
+ * - If the script cannot complete, the same steps run as WebDriver calls with explicit waits
+ * - Timeouts are learned through StepTimeouts ("select/<name>")
+ */
+public final class ReactSelect {
+
+    /** Country dropdown of the Parent, Youth and Adult signup forms. */
+    public static final ReactSelect COUNTRY = new ReactSelect("country",
+        "//div[contains(@class, 'css-19bb58m') or contains(@class, 'css-1dimb5e-singleValue') or contains(@class, 'css-1xhxz2o-control')]",
+        "//input[starts-with(@id, 'react-select')]",
+        "//*[starts-with(@id, 'react-select') and contains(@id, '-option-')] | //div[contains(@class, '-option')]");
+
+    /** Time Zone picker of the event Details section. */
+    public static final ReactSelect TIME_ZONE = new ReactSelect("time zone",
+        "//div[contains(@class,'flex items-center justify-between w-full mx-auto')]",
+        "//input[contains(@id, 'radix') or @placeholder='Search...']",
+        "//*[@role='option'] | //*[@cmdk-item]");
+
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration SCRIPT_TIMEOUT = Duration.ofSeconds(30);
+    private static final long SCRIPT_MARGIN_MS = 2000;
+
+    /** Option labels per dropdown, from the first time its menu was opened. */
+    private static final Map<String, List<String>> OPTION_CACHE = new ConcurrentHashMap<>();
+
+    private static final String SELECT_SCRIPT =
+        "var ctrlX = arguments[0], inputX = arguments[1], optX = arguments[2], label = arguments[3], query = arguments[4],"
+            + " collect = arguments[5], timeoutMs = arguments[6], done = arguments[arguments.length - 1];"
+            + " var deadline = Date.now() + timeoutMs;"
+            + " function one(x) { return document.evaluate(x, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue; }"
+            + " function all(x) { var r = document.evaluate(x, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), out = [];"
+            + "   for (var i = 0; i < r.snapshotLength; i++) { var n = r.snapshotItem(i); if (n.getClientRects().length > 0) out.push(n); } return out; }"
+            + " function norm(s) { return (s || '').replace(/\\s+/g, ' ').trim().toLowerCase(); }"
+            + " function press(el) {"
+            + "   ['pointerdown', 'mousedown', 'pointerup', 'mouseup', 'click'].forEach(function (t) {"
+            + "     var init = { bubbles: true, cancelable: true, button: 0, pointerType: 'mouse' };"
+            + "     el.dispatchEvent(t.indexOf('pointer') === 0 && window.PointerEvent ? new PointerEvent(t, init) : new MouseEvent(t, init));"
+            + "   });"
+            + " }"
+            + " function waitFor(test, next, maxMs) {"
+            + "   var v = test(); if (v) { next(v); return; }"
+            + "   var timer, obs = new MutationObserver(function () { var w = test(); if (w) { obs.disconnect(); clearTimeout(timer); next(w); } });"
+            + "   obs.observe(document.documentElement, { childList: true, subtree: true, attributes: true });"
+            + "   timer = setTimeout(function () { obs.disconnect(); next(test()); },"
+            + "     Math.max(0, Math.min(maxMs || timeoutMs, deadline - Date.now())));"
+            + " }"
+            + " function exact() { var want = norm(label); var opts = all(optX);"
+            + "   for (var i = 0; i < opts.length; i++) { if (norm(opts[i].textContent) === want) return opts[i]; } return null; }"
+            + " function partial() { var want = norm(query); var opts = all(optX);"
+            + "   for (var i = 0; i < opts.length; i++) { if (norm(opts[i].textContent).indexOf(want) >= 0) return opts[i]; } return null; }"
+            + " var ctrl = one(ctrlX);"
+            + " if (ctrl === null) { done({ error: 'control not found' }); return; }"
+            + " ctrl.scrollIntoView({ block: 'center' });"
+            + " press(ctrl);"
+            + " waitFor(function () { var i = one(inputX); return i !== null && (!collect || all(optX).length > 0) ? i : null; }, function (input) {"
+            + "   input = input || one(inputX);"
+            + "   if (!input) { done({ error: 'search input not found' }); return; }"
+            + "   var seen = collect ? all(optX).map(function (o) { return o.textContent.replace(/\\s+/g, ' ').trim(); }) : null;"
+            + "   input.focus();"
+            + "   Object.getOwnPropertyDescriptor(HTMLInputElement.prototype, 'value').set.call(input, query);"
+            + "   input.dispatchEvent(new Event('input', { bubbles: true }));"
+            + "   function pick(opt) {"
+            + "     if (!opt) { done({ error: 'no option matching ' + query, options: seen }); return; }"
+            + "     var picked = opt.textContent.replace(/\\s+/g, ' ').trim();"
+            + "     opt.scrollIntoView({ block: 'nearest' });"
+            + "     press(opt);"
+            + "     waitFor(function () { return !opt.isConnected || opt.getClientRects().length === 0; }, function () {"
+            + "       done({ picked: picked, options: seen });"
+            + "     }, 1000);"
+            + "   }"
+            + "   waitFor(exact, function (opt) { if (opt) pick(opt); else waitFor(partial, pick); }, 2000);"
+            + " }, 2000);";
+
+    private final String name;
+    private final String controlXpath;
+    private final String inputXpath;
+    private final String optionXpath;
+
+    public ReactSelect(String name, String controlXpath, String inputXpath, String optionXpath) {
+        this.name = name;
+        this.controlXpath = controlXpath;
+        this.inputXpath = inputXpath;
+        this.optionXpath = optionXpath;
+    }
+
+    /**
+     * Pick the option whose text equals the wanted text (ignoring case), or else the first one containing it.
+     *
+     * @return the label of the picked option
+     */
+    public String select(WebDriver driver, String text) {
+        String key = "select/" + name;
+        Duration timeout = StepTimeouts.timeoutFor(key, DEFAULT_TIMEOUT);
+        long start = System.currentTimeMillis();
+        List<String> cached = OPTION_CACHE.get(name);
+        String label = cached == null ? text : resolve(cached, text);
+
+        String picked = selectInPage(driver, label, text, cached == null, timeout);
+        if (picked == null) {
+            picked = selectWithWebDriver(driver, label, text, timeout);
+        }
+        StepTimeouts.record(key, System.currentTimeMillis() - start);
+        System.out.println("✅ Selected " + name + ": " + picked);
+        return picked;
+    }
+
+    /** The cached option equal to the text, else the first containing it, else the text itself. */
+    private static String resolve(List<String> options, String text) {
+        for (String option : options) {
+            if (option.equalsIgnoreCase(text)) return option;
+        }
+        for (String option : options) {
+            if (option.toLowerCase().contains(text.toLowerCase())) return option;
+        }
+        return text;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String selectInPage(WebDriver driver, String label, String query, boolean collect, Duration timeout) {
+        // Restored in finally, so later async scripts on this session keep their timeout
+        Duration scriptTimeout = null;
+        try {
+            if (timeout.toMillis() + SCRIPT_MARGIN_MS > SCRIPT_TIMEOUT.toMillis()) {
+                scriptTimeout = driver.manage().timeouts().getScriptTimeout();
+                driver.manage().timeouts().scriptTimeout(timeout.plusMillis(SCRIPT_MARGIN_MS));
+            }
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(SELECT_SCRIPT,
+                controlXpath, inputXpath, optionXpath, label, query, collect, timeout.toMillis());
+            if (!(result instanceof Map)) return null;
+            Map<String, Object> outcome = (Map<String, Object>) result;
+            Object options = outcome.get("options");
+            if (options instanceof List && !((List<?>) options).isEmpty()) {
+                List<String> labels = new ArrayList<>();
+                for (Object o : (List<?>) options) labels.add(String.valueOf(o));
+                OPTION_CACHE.putIfAbsent(name, Collections.unmodifiableList(labels));
+            }
+            if (outcome.get("error") != null) {
+                System.out.println("⚠️ " + name + " dropdown script: " + outcome.get("error") + "; selecting step by step");
+                return null;
+            }
+            return (String) outcome.get("picked");
+        } catch (WebDriverException e) {
+            System.out.println("⚠️ " + name + " dropdown script failed, selecting step by step: " + e.getMessage());
+            return null;
+        } finally {
+            if (scriptTimeout != null) driver.manage().timeouts().scriptTimeout(scriptTimeout);
+        }
+    }
+
+    /**
+     * Fallback: click the control, type the query, click the option; each step behind an explicit wait.
+     */
+    private String selectWithWebDriver(WebDriver driver, String label, String query, Duration timeout) {
+        WebDriverWait wait = new WebDriverWait(driver, timeout);
+        WebElement control = wait.until(ExpectedConditions.elementToBeClickable(By.xpath(controlXpath)));
+        ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({block: 'center'});", control);
+        control.click();
+        WebElement input = wait.until(ExpectedConditions.presenceOfElementLocated(By.xpath(inputXpath)));
+        input.clear();
+        input.sendKeys(query);
+        WebElement option = wait.until(ExpectedConditions.elementToBeClickable(
+            By.xpath("//*[normalize-space(text())=" + DashboardProbe.literal(label) + "]")));
+        option.click();
+        return label;
+    }
+}
@@ -0,0 +1,219 @@
+package com.usaflag;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Condition-based waits that replace the fixed Thread.sleep delays of the signup flows
+ * - Each wait names a readiness condition ("react-select menu open", "route changed to /verification", ...)
+ *   and returns as soon as it holds, polling every signup.ready.poll.ms
+ * - Conditions run as one script per poll, so the drivers' 10 s implicit wait never stretches a poll
+ * - A condition still false after its timeout (learned per step by StepTimeouts, signup.ready.timeout.seconds
+ *   until then) logs a warning and the flow goes on;
+ *   the next step's own explicit wait decides whether the page is really broken
+ * - Every wait is timed against the fixed delay it replaced; printReport() shows the time saved per step
+ */
+public final class ReadyWait {
+
+    /**
+     * A named readiness check. Exceptions thrown by the check (stale elements, navigation in progress) count as "not yet".
+     */
+    public static final class Condition {
+        private final String name;
+        private final Function<WebDriver, Boolean> check;
+
+        public Condition(String name, Function<WebDriver, Boolean> check) {
+            this.name = name;
+            this.check = check;
+        }
+
+        public String getName() { return name; }
+
+        boolean holds(WebDriver driver) {
+            try {
+                return Boolean.TRUE.equals(check.apply(driver));
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+    }
+
+    private static final class StepStats {
+        private final LongAdder waits = new LongAdder();
+        private final LongAdder replacedMs = new LongAdder();
+        private final LongAdder waitedMs = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+    }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(SignupConfig.getInt("signup.ready.timeout.seconds", 10));
+    private static final long POLL_MS = Math.max(10, SignupConfig.getInt("signup.ready.poll.ms", 100));
+    private static final Map<String, StepStats> STATS = new ConcurrentHashMap<>();
+
+    private ReadyWait() {}
+
+    /**
+     * Wait until the condition holds (or the ready timeout passes) in place of a fixed sleep.
+     *
+     * @param step           label for the report, e.g. "open sign-up options"
+     * @param replacedSleepMs the fixed delay this wait replaces
+     * @return true if the condition held, false on timeout
+     */
+    public static boolean await(WebDriver driver, String step, long replacedSleepMs, Condition condition) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        long timeoutMs = StepTimeouts.timeoutFor("ready/" + step, TIMEOUT).toMillis();
+        long deadline = start + timeoutMs;
+        boolean ready;
+        while (!(ready = condition.holds(driver)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(POLL_MS);
+        }
+        long waited = System.currentTimeMillis() - start;
+        if (ready) StepTimeouts.record("ready/" + step, waited);
+        else StepTimeouts.recordTimeout("ready/" + step);
+        StepStats stats = STATS.computeIfAbsent(step, k -> new StepStats());
+        stats.waits.increment();
+        stats.replacedMs.add(replacedSleepMs);
+        stats.waitedMs.add(waited);
+        if (!ready) {
+            stats.timeouts.increment();
+            System.out.println("⚠️ Not ready after " + waited + " ms: " + step + " (" + condition.getName() + "); continuing");
+        }
+        return ready;
+    }
+
+    /**
+     * Print waits, fixed delay, actual wait and time saved per step, biggest saving first.
+     */
+    public static void printReport() {
+        if (STATS.isEmpty()) return;
+        List<Map.Entry<String, StepStats>> rows = new ArrayList<>(STATS.entrySet());
+        rows.sort((a, b) -> Long.compare(saved(b.getValue()), saved(a.getValue())));
+        long totalReplaced = 0;
+        long totalWaited = 0;
+        System.out.println("============= ⏱️ Readiness waits vs fixed sleeps =============");
+        for (Map.Entry<String, StepStats> row : rows) {
+            StepStats s = row.getValue();
+            totalReplaced += s.replacedMs.sum();
+            totalWaited += s.waitedMs.sum();
+            System.out.println(String.format("   %-34s %4d waits, fixed %7d ms, waited %7d ms, saved %7d ms%s",
+                row.getKey(), s.waits.sum(), s.replacedMs.sum(), s.waitedMs.sum(), saved(s),
+                s.timeouts.sum() > 0 ? " (" + s.timeouts.sum() + " timed out)" : ""));
+        }
+        System.out.println("   Total saved: " + (totalReplaced - totalWaited) + " ms of " + totalReplaced + " ms fixed sleeps");
+    }
+
+    private static long saved(StepStats s) {
+        return s.replacedMs.sum() - s.waitedMs.sum();
+    }
+
+    // ---- Conditions -------------------------------------------------------------------------------------
+
+    private static Object js(WebDriver driver, String script, Object... args) {
+        return ((JavascriptExecutor) driver).executeScript(script, args);
+    }
+
+    private static final String FIND_XPATH =
+        "var n = document.evaluate(arguments[0], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;";
+
+    /** An element matching the XPath is in the DOM. */
+    public static Condition present(String xpath) {
+        return new Condition("present " + xpath, d -> (Boolean) js(d, FIND_XPATH + " return n !== null;", xpath));
+    }
+
+    /** No element matching the XPath is in the DOM (a modal or form closed). */
+    public static Condition absent(String xpath) {
+        return new Condition("absent " + xpath, d -> (Boolean) js(d, FIND_XPATH + " return n === null;", xpath));
+    }
+
+    /** An element matching the XPath is rendered and not disabled. */
+    public static Condition clickable(String xpath) {
+        return new Condition("clickable " + xpath, d -> (Boolean) js(d, FIND_XPATH
+            + " return n !== null && n.getClientRects().length > 0 && !n.disabled;", xpath));
+    }
+
+    /** Some element's own text contains the given text. */
+    public static Condition textShown(String text) {
+        String xpath = "//*[contains(normalize-space(text()), " + DashboardProbe.literal(text) + ")]";
+        return new Condition("text shown '" + text + "'", d -> (Boolean) js(d, FIND_XPATH + " return n !== null;", xpath));
+    }
+
+    /** The current URL contains the fragment, e.g. "sign-up-options". */
+    public static Condition routeContains(String fragment) {
+        return new Condition("route changed to /" + fragment, d -> {
+            String url = d.getCurrentUrl();
+            return url != null && url.contains(fragment);
+        });
+    }
+
+    /** The current URL no longer contains the fragment. */
+    public static Condition routeLeft(String fragment) {
+        return new Condition("route left /" + fragment, d -> {
+            String url = d.getCurrentUrl();
+            return url != null && !url.contains(fragment);
+        });
+    }
+
+    /** The OTP verification page is showing: the URL moved to /verification or the first OTP box rendered. */
+    public static Condition verificationPageShown() {
+        return new Condition("route changed to /verification", d -> (Boolean) js(d,
+            "return location.href.indexOf('verification') >= 0 || document.getElementById('otp-input-0') !== null;"));
+    }
+
+    /** The verification page was left: the URL moved on or the password form rendered. */
+    public static Condition passwordPageShown() {
+        return new Condition("route changed to /create-account-password", d -> (Boolean) js(d,
+            "return location.href.indexOf('verification') < 0 || document.getElementById('password') !== null;"));
+    }
+
+    /** The form's submit button exists and is enabled. */
+    public static Condition submitButtonEnabled() {
+        return new Condition("submit button enabled", d -> (Boolean) js(d,
+            "var b = document.querySelector(\"button[type='submit']\"); return b !== null && !b.disabled;"));
+    }
+
+    /** The element's box lies within the viewport (scrollIntoView finished). */
+    public static Condition inViewport(WebElement element) {
+        return new Condition("element in viewport", d -> (Boolean) js(d,
+            "var r = arguments[0].getBoundingClientRect();"
+                + " return r.top >= 0 && r.bottom <= (window.innerHeight || document.documentElement.clientHeight);", element));
+    }
+
+    /** The element has keyboard focus. */
+    public static Condition focused(WebElement element) {
+        return new Condition("input focused", d -> (Boolean) js(d, "return document.activeElement === arguments[0];", element));
+    }
+
+    /** The input's value equals the given text. */
+    public static Condition valueEquals(WebElement element, String value) {
+        return new Condition("input value '" + value + "'", d -> value.equals(js(d, "return arguments[0].value;", element)));
+    }
+
+    /** A react-select dropdown menu (listbox) is open. */
+    public static Condition reactSelectMenuOpen() {
+        return new Condition("react-select menu open", d -> (Boolean) js(d,
+            "return document.querySelector(\"[id^='react-select'][id$='-listbox'], div[class*='-menu']\") !== null;"));
+    }
+
+    /** No react-select dropdown menu is open. */
+    public static Condition reactSelectMenuClosed() {
+        return new Condition("react-select menu closed", d -> (Boolean) js(d,
+            "return document.querySelector(\"[id^='react-select'][id$='-listbox'], div[class*='-menu']\") === null;"));
+    }
+
+    /** The open react-select menu shows an option containing the text (filtering has caught up with typing). */
+    public static Condition reactSelectOptionShown(String text) {
+        return new Condition("react-select option '" + text + "' shown", d -> (Boolean) js(d,
+            "var want = arguments[0].toLowerCase();"
+                + " var opts = document.querySelectorAll(\"[id^='react-select'][id*='-option-'], div[class*='-option']\");"
+                + " for (var i = 0; i < opts.length; i++) { if (opts[i].textContent.toLowerCase().indexOf(want) >= 0) return true; }"
+                + " return false;", text));
+    }
+}
@@ -0,0 +1,71 @@
+package com.usaflag;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * Shared configuration for the signup load tests
+ * - Reads src/main/resources/config.properties once
+ * - Any key can be overridden on the command line, e.g. -Dsignup.load.mode=open
+ * - outputFile() gives a shard worker (signup.shard.id) its own copy of each run output file
+ */
+public final class SignupConfig {
+
+    private static final String CONFIG_PATH = "src/main/resources/config.properties";
+    private static final Properties CONFIG = load();
+
+    private SignupConfig() {}
+
+    private static Properties load() {
+        Properties config = new Properties();
+        try (FileInputStream input = new FileInputStream(CONFIG_PATH)) {
+            config.load(input);
+        } catch (IOException e) {
+            System.err.println("Error loading configuration: " + e.getMessage() + " (using defaults)");
+        }
+        return config;
+    }
+
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key, CONFIG.getProperty(key));
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️ Invalid integer for " + key + ": '" + value + "', using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * The run output file to append to: the path itself, or in a SignupCoordinator worker JVM (signup.shard.id set)
+     * that worker's own copy, which the coordinator merges back after the run.
+     */
+    public static String outputFile(String path) {
+        String shard = getString("signup.shard.id", null);
+        return shard == null ? path : shardFile(path, shard);
+    }
+
+    /** "OtpLatency.csv" for shard 2 as "OtpLatency_shard-2.csv". */
+    static String shardFile(String path, String shard) {
+        int dot = path.lastIndexOf('.');
+        return dot < 0 ? path + "_shard-" + shard : path.substring(0, dot) + "_shard-" + shard + path.substring(dot);
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        String value = getString(key, null);
+        if (value == null) return defaultValue;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️ Invalid number for " + key + ": '" + value + "', using " + defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.usaflag;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+
+/**
+ * State of one single-user signup flow (ParentSignupTest, YouthSignupTest, AdultSignupTest)
+ * - Owns its Chrome session, so parallel DataProvider invocations never share a browser
+ * - Hands each step a StepWait named "<flow>/<step>", so wait timeouts are learned per flow step
+ * - Carries the CSV row and the email being verified from one step of the flow to the next
+ * - close() quits the browser
+ */
+public class SignupContext<U> {
+
+    private final String flow;
+    private final WebDriver driver;
+    private U user;
+    private String verificationEmail;
+
+    /**
+     * Start a fresh browser for one flow; the user may be set later (single-flow step tests pick it in step 3).
+     */
+    public SignupContext(String flow, U user) {
+        this.flow = flow;
+        ChromeOptions options = new ChromeOptions();
+        this.driver = new ChromeDriver(options);
+        this.driver.manage().window().maximize();
+        this.driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+        this.user = user;
+    }
+
+    public WebDriver getDriver() { return driver; }
+    public U getUser() { return user; }
+    public void setUser(U user) { this.user = user; }
+    public String getVerificationEmail() { return verificationEmail; }
+    public void setVerificationEmail(String verificationEmail) { this.verificationEmail = verificationEmail; }
+
+    /**
+     * Explicit wait for one step of the flow; 10 s until StepTimeouts has learned the step.
+     */
+    public WebDriverWait getWait(String step) {
+        return new StepWait(driver, flow + "/" + step, Duration.ofSeconds(10));
+    }
+
+    public void close() {
+        try { driver.quit(); } catch (Exception ignore) {}
+    }
+}
@@ -0,0 +1,361 @@
+package com.usaflag;
+
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-process signup coordinator
+ * - Splits ParentConcurrentSignup.csv into N shards (round robin, so every shard sees the same mix)
+ * - Launches N SignupShardWorker JVMs on this machine and hands each its shard over a local socket
+ * - Merges every worker's per-user results into ParentConcurrentSignup_ShardReport.csv plus one summary; a user
+ *   whose worker died or was killed before reporting it counts as FAILED
+ * - Workers write their result, warm-up and OTP latency CSVs to their own files; they are appended to the shared
+ *   files after the run
+ * - Workers stream their step timings; the merged per-step latency goes to ParentConcurrentSignup_ShardSteps.csv
+ * - A worker still running after signup.shard.worker.timeout.minutes is killed with its browsers
+ * - Needs signup.mail.client=yopmail; run() refuses local, as the SMTP sink's port binds in one JVM only
+ * - Run with signup.load.mode=sharded, or directly: java -cp ... com.usaflag.SignupCoordinator
+ */
+public class SignupCoordinator {
+
+    private static final String REPORT_CSV_FILE_PATH = "ParentConcurrentSignup_ShardReport.csv";
+    private static final String STEPS_CSV_FILE_PATH = "ParentConcurrentSignup_ShardSteps.csv";
+    private static final int WORKER_CONNECT_TIMEOUT_MS = 120_000;
+    private static final long WORKER_TIMEOUT_MS = SignupConfig.getInt("signup.shard.worker.timeout.minutes", 60) * 60_000L;
+
+    /**
+     * One finished signup as reported by a worker.
+     */
+    private static final class Result {
+        private final int index;
+        private final String email;
+        private final boolean succeeded;
+        private final long durationMs;
+        private final int worker;
+        private final String thread;
+
+        private Result(int index, String email, boolean succeeded, long durationMs, int worker, String thread) {
+            this.index = index;
+            this.email = email;
+            this.succeeded = succeeded;
+            this.durationMs = durationMs;
+            this.worker = worker;
+            this.thread = thread;
+        }
+    }
+
+    private final String csvPath;
+    private final int workers;
+    private final int slotsPerWorker;
+    private final Map<Integer, Result> results = new ConcurrentHashMap<>();
+    private final Map<String, List<Long>> stepDurations = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> stepFailures = new ConcurrentHashMap<>();
+
+    public SignupCoordinator(String csvPath, int workers, int slotsPerWorker) {
+        if (workers < 1) throw new IllegalArgumentException("workers must be >= 1, got " + workers);
+        if (slotsPerWorker < 1) throw new IllegalArgumentException("slotsPerWorker must be >= 1, got " + slotsPerWorker);
+        this.csvPath = csvPath;
+        this.workers = workers;
+        this.slotsPerWorker = slotsPerWorker;
+    }
+
+    public static void main(String[] args) throws Exception {
+        fromConfig().run();
+    }
+
+    @Test
+    public void runShardedSignups() throws Exception {
+        if (!ParentConcurrentSignupTest.isLoadMode("sharded")) {
+            System.out.println("ℹ️ signup.load.mode is not sharded; skipping multi-process run.");
+            return;
+        }
+        fromConfig().run();
+    }
+
+    private static SignupCoordinator fromConfig() {
+        return new SignupCoordinator(
+            SignupConfig.getString("signup.shard.csv", ParentConcurrentSignupTest.CSV_FILE_PATH),
+            SignupConfig.getInt("signup.shard.workers", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+            SignupConfig.getInt("signup.shard.slots.per.worker", 5));
+    }
+
+    public void run() throws IOException, InterruptedException {
+        if ("local".equalsIgnoreCase(SignupConfig.getString("signup.mail.client", "yopmail"))) {
+            // Every worker JVM would start its own SmtpSink on signup.smtp.port; all but the first fail to bind
+            throw new IllegalStateException("signup.mail.client=local cannot be used with sharded runs: the SMTP sink "
+                + "listens in one JVM only. Use signup.mail.client=yopmail or run the flows in a single JVM");
+        }
+        List<List<String>> shards = splitCsv();
+        int total = 0;
+        for (List<String> shard : shards) total += shard.size();
+        if (total == 0) throw new RuntimeException("No users found in CSV: " + csvPath);
+        ParentConcurrentSignupTest.initializeResultCsvs();
+
+        long start = System.currentTimeMillis();
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(WORKER_CONNECT_TIMEOUT_MS);
+            System.out.println("🧭 Coordinator listening on 127.0.0.1:" + server.getLocalPort() + " - "
+                + total + " users in " + workers + " shards × " + slotsPerWorker + " slots");
+
+            List<Process> processes = new ArrayList<>();
+            for (int w = 1; w <= workers; w++) {
+                processes.add(launchWorker(w, server.getLocalPort()));
+            }
+
+            List<Thread> handlers = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    System.err.println("❌ Only " + i + " / " + workers + " workers connected within "
+                        + (WORKER_CONNECT_TIMEOUT_MS / 1000) + "s; continuing with those");
+                    break;
+                }
+                Thread handler = new Thread(() -> serveWorker(socket, shards), "shard-handler-" + (handlers.size() + 1));
+                handler.start();
+                handlers.add(handler);
+            }
+            long deadline = start + WORKER_TIMEOUT_MS;
+            for (Process p : processes) {
+                if (!p.waitFor(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                    System.err.println("❌ Worker process " + p.pid() + " still running after "
+                        + (WORKER_TIMEOUT_MS / 60_000) + " min; killing it and its browsers");
+                    p.descendants().forEach(ProcessHandle::destroyForcibly);
+                    p.destroyForcibly().waitFor(10, TimeUnit.SECONDS);
+                } else if (p.exitValue() != 0) {
+                    System.err.println("⚠️ Worker process " + p.pid() + " exited with code " + p.exitValue());
+                }
+            }
+            // A killed worker's socket is closed, so its handler has returned or returns now
+            for (Thread handler : handlers) handler.join();
+        }
+        int missing = markMissing(shards);
+        mergeWorkerFiles();
+        writeReport(total, missing, System.currentTimeMillis() - start);
+        writeStepReport();
+    }
+
+    /**
+     * Record every user without a RESULT row (worker crashed, hung or never connected) as FAILED.
+     */
+    private int markMissing(List<List<String>> shards) {
+        int missing = 0;
+        for (int w = 0; w < shards.size(); w++) {
+            for (String entry : shards.get(w)) {
+                int tab = entry.indexOf('\t');
+                int index = Integer.parseInt(entry.substring(0, tab));
+                if (results.containsKey(index)) continue;
+                ParentConcurrentSignupTest.UserData u = ParentConcurrentSignupTest.parseCsvLine(entry.substring(tab + 1));
+                results.put(index, new Result(index, u == null ? "?" : u.getEmail(), false, 0, w + 1, "no result"));
+                missing++;
+            }
+        }
+        if (missing > 0) System.err.println("❌ " + missing + " users got no result from their worker; counted as FAILED");
+        return missing;
+    }
+
+    /**
+     * Append each worker's copy of the run CSVs to the shared file (header only when it is new) and delete the copy.
+     */
+    private void mergeWorkerFiles() {
+        List<String> paths = List.of(ParentConcurrentSignupTest.SUCCESS_CSV_FILE_PATH,
+            ParentConcurrentSignupTest.SUCCESS_EMAILS_CSV_FILE_PATH, ParentConcurrentSignupTest.TIMED_OUT_CSV_FILE_PATH,
+            ParentConcurrentSignupTest.WARMUP_CSV_FILE_PATH, OtpLatency.CSV_FILE);
+        for (String path : paths) {
+            for (int w = 1; w <= workers; w++) {
+                File part = new File(SignupConfig.shardFile(path, String.valueOf(w)));
+                if (!part.exists()) continue;
+                try {
+                    List<String> lines = Files.readAllLines(part.toPath(), Charset.defaultCharset());
+                    File target = new File(path);
+                    boolean header = !target.exists();
+                    try (PrintWriter writer = new PrintWriter(new FileWriter(target, true))) {
+                        for (int i = header ? 0 : 1; i < lines.size(); i++) writer.println(lines.get(i));
+                    }
+                    Files.delete(part.toPath());
+                } catch (IOException e) {
+                    System.err.println("Failed to merge " + part.getName() + " into " + path + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Round-robin split; each entry keeps the user's global index so results merge back in CSV order.
+     */
+    private List<List<String>> splitCsv() throws IOException {
+        List<List<String>> shards = new ArrayList<>();
+        for (int w = 0; w < workers; w++) shards.add(new ArrayList<>());
+        try (BufferedReader br = new BufferedReader(new FileReader(csvPath))) {
+            String line;
+            boolean isFirst = true;
+            int index = 0;
+            while ((line = br.readLine()) != null) {
+                if (isFirst) { isFirst = false; continue; }
+                if (ParentConcurrentSignupTest.parseCsvLine(line) == null) continue;
+                shards.get(index % workers).add(index + "\t" + line);
+                index++;
+            }
+        }
+        return shards;
+    }
+
+    private Process launchWorker(int workerId, int port) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        // Forward -D overrides so workers read the same load settings as the coordinator
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if ((key.startsWith("signup.") || key.startsWith("driver.")) && !key.equals("signup.shard.id")) {
+                command.add("-D" + key + "=" + System.getProperty(key));
+            }
+        }
+        command.add("-Dsignup.shard.id=" + workerId);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(SignupShardWorker.class.getName());
+        command.add(String.valueOf(port));
+        command.add(String.valueOf(workerId));
+        command.add(String.valueOf(slotsPerWorker));
+
+        File log = new File("ParentConcurrentSignup_shard-" + workerId + ".log");
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log)
+            .start();
+        System.out.println("🚚 Started worker " + workerId + " (pid " + process.pid() + ", log " + log.getName() + ")");
+        return process;
+    }
+
+    /**
+     * Protocol (one line per message, tab separated):
+     *   worker → HELLO id
+     *   coord  → USER index csvLine ... END
+     *   worker → STEP name durationMs OK|FAILED and RESULT index OK|FAILED durationMs thread email, interleaved ... DONE
+     */
+    private void serveWorker(Socket socket, List<List<String>> shards) {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(s.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            String hello = in.readLine();
+            if (hello == null || !hello.startsWith("HELLO\t")) {
+                System.err.println("❌ Unexpected worker greeting: " + hello);
+                return;
+            }
+            int workerId = Integer.parseInt(hello.substring(6).trim());
+            List<String> shard = shards.get(workerId - 1);
+            for (String user : shard) out.println("USER\t" + user);
+            out.println("END");
+            System.out.println("📤 Worker " + workerId + " received " + shard.size() + " users");
+
+            String line;
+            while ((line = in.readLine()) != null && !line.equals("DONE")) {
+                String[] f = line.split("\t", -1);
+                if (f.length == 4 && f[0].equals("STEP")) {
+                    stepDurations.computeIfAbsent(f[1], k -> Collections.synchronizedList(new ArrayList<>())).add(Long.parseLong(f[2]));
+                    if (f[3].equals("FAILED")) stepFailures.computeIfAbsent(f[1], k -> new LongAdder()).increment();
+                } else if (f.length == 6 && f[0].equals("RESULT")) {
+                    Result r = new Result(Integer.parseInt(f[1]), f[5], f[2].equals("OK"),
+                        Long.parseLong(f[3]), workerId, f[4]);
+                    results.put(r.index, r);
+                    System.out.println((r.succeeded ? "✅" : "❌") + " [worker " + workerId + "] index " + r.index
+                        + " " + r.email + " in " + r.durationMs + " ms (" + results.size() + " reported)");
+                }
+            }
+            System.out.println("🏁 Worker " + workerId + " finished");
+        } catch (IOException e) {
+            System.err.println("❌ Lost connection to worker: " + e.getMessage());
+        }
+    }
+
+    private void writeReport(int total, int missing, long elapsedMs) {
+        Map<Integer, int[]> perWorker = new TreeMap<>();
+        List<Long> durations = new ArrayList<>();
+        int succeeded = 0;
+        try (PrintWriter writer = new PrintWriter(new FileWriter(REPORT_CSV_FILE_PATH, false))) {
+            writer.println("Index,Email,Status,DurationMs,Worker,Thread");
+            for (Result r : new TreeMap<>(results).values()) {
+                writer.println(r.index + "," + r.email + "," + (r.succeeded ? "OK" : "FAILED") + ","
+                    + r.durationMs + "," + r.worker + "," + r.thread);
+                int[] counts = perWorker.computeIfAbsent(r.worker, k -> new int[2]);
+                counts[r.succeeded ? 0 : 1]++;
+                durations.add(r.durationMs);
+                if (r.succeeded) succeeded++;
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write shard report CSV: " + e.getMessage());
+        }
+        Collections.sort(durations);
+
+        System.out.println("============= 📊 Sharded run summary =============");
+        System.out.println("   Users:        " + total + " (reported " + (results.size() - missing) + ", succeeded " + succeeded
+            + (missing > 0 ? ", " + missing + " never reported" : "") + ")");
+        for (Map.Entry<Integer, int[]> e : perWorker.entrySet()) {
+            System.out.println("   Worker " + e.getKey() + ":     " + e.getValue()[0] + " ok, " + e.getValue()[1] + " failed");
+        }
+        System.out.println("   Flow p50/p95: " + percentile(durations, 50) + " / " + percentile(durations, 95) + " ms");
+        System.out.println("   Throughput:   " + String.format("%.1f", elapsedMs > 0 ? (results.size() - missing) * 60000.0 / elapsedMs : 0) + " signups/min");
+        System.out.println("   Total time:   " + (elapsedMs / 1000) + "s");
+        System.out.println("   Report:       " + new File(REPORT_CSV_FILE_PATH).getAbsolutePath());
+    }
+
+    /**
+     * Step latency over every worker's flows: count, failures, p50, p95 and max per step.
+     */
+    private void writeStepReport() {
+        if (stepDurations.isEmpty()) return;
+        System.out.println("============= ⏱️ Step latency (all workers) =============");
+        try (PrintWriter writer = new PrintWriter(new FileWriter(STEPS_CSV_FILE_PATH, false))) {
+            writer.println("Step,Count,Failed,P50Ms,P95Ms,MaxMs");
+            for (Map.Entry<String, List<Long>> e : new TreeMap<>(stepDurations).entrySet()) {
+                List<Long> sorted;
+                synchronized (e.getValue()) {
+                    sorted = new ArrayList<>(e.getValue());
+                }
+                Collections.sort(sorted);
+                LongAdder failures = stepFailures.get(e.getKey());
+                long failed = failures == null ? 0 : failures.sum();
+                long p50 = percentile(sorted, 50);
+                long p95 = percentile(sorted, 95);
+                long max = sorted.get(sorted.size() - 1);
+                System.out.println(String.format("   %-26s %5d steps, p50 %6d ms, p95 %6d ms, max %6d ms%s",
+                    e.getKey(), sorted.size(), p50, p95, max, failed > 0 ? " (" + failed + " failed)" : ""));
+                writer.println("\"" + e.getKey().replace("\"", "'") + "\"," + sorted.size() + "," + failed + ","
+                    + p50 + "," + p95 + "," + max);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write shard step CSV: " + e.getMessage());
+        }
+        System.out.println("   Report:       " + new File(STEPS_CSV_FILE_PATH).getAbsolutePath());
+    }
+
+    private static long percentile(List<Long> sorted, int p) {
+        if (sorted.isEmpty()) return 0;
+        int idx = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(idx, sorted.size() - 1)));
+    }
+}
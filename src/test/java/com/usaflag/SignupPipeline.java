@@ -0,0 +1,330 @@
+package com.usaflag;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Staged parent signup pipeline
+ * - Stage 1 (submit workers): fill and submit the signup form, then queue the browser, parked on the
+ *   verification page, for its OTP
+ * - Stage 2 (OTP workers): read the code through MailboxClient (YOPmail over HTTP or the local SMTP sink), no browser
+ * - Stage 3 (entry workers): type the OTP into the waiting browser and create the password
+ * - Bounded queues between stages: when OTP lookup falls behind, stage 1 blocks instead of
+ *   opening more browsers; queue depths go to the console and to a CSV as back-pressure signals
+ * - An interrupt that is not the watchdog's stops the whole pipeline: every stage exits, queued flows fail and
+ *   run() throws InterruptedException after its summary
+ */
+public class SignupPipeline {
+
+    /**
+     * One user moving through the stages. Handed between threads only through the stage queues.
+     */
+    private static final class Job {
+        private final ParentConcurrentSignupTest.UserData user;
+        private final int index;
+        private final FlowWatchdog.Watch watch;
+        private final StepMetrics.FlowTrace trace;
+        private WebDriver driver;
+        private WebDriverWait wait;
+        private String otp;
+
+        private Job(ParentConcurrentSignupTest.UserData user, int index, FlowWatchdog.Watch watch, StepMetrics.FlowTrace trace) {
+            this.user = user;
+            this.index = index;
+            this.watch = watch;
+            this.trace = trace;
+        }
+    }
+
+    /** Queue terminator: one per downstream worker once the upstream stage has drained. */
+    private static final Job END = new Job(null, -1, null, null);
+
+    private final DriverPool signupPool;
+    private final FlowWatchdog watchdog;
+    private final int submitWorkers;
+    private final int otpWorkers;
+    private final int entryWorkers;
+    private final int queueCapacity;
+    private final long reportIntervalMs;
+    private final String depthCsvPath;
+
+    private final BlockingQueue<Job> otpQueue;
+    private final BlockingQueue<Job> entryQueue;
+
+    private final AtomicInteger nextUser = new AtomicInteger();
+    private final AtomicInteger submitting = new AtomicInteger();
+    private final AtomicInteger fetching = new AtomicInteger();
+    private final AtomicInteger entering = new AtomicInteger();
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final List<Thread> workers = new CopyOnWriteArrayList<>();
+    private volatile String stopReason;
+    private volatile int peakOtpQueue;
+    private volatile int peakEntryQueue;
+    private long runStart;
+
+    public SignupPipeline(DriverPool signupPool, FlowWatchdog watchdog, String depthCsvPath) {
+        this.signupPool = signupPool;
+        this.watchdog = watchdog;
+        this.depthCsvPath = depthCsvPath;
+        this.submitWorkers = Math.max(1, SignupConfig.getInt("signup.pipeline.submit.workers", 5));
+        this.otpWorkers = Math.max(1, SignupConfig.getInt("signup.pipeline.otp.workers", 2));
+        this.entryWorkers = Math.max(1, SignupConfig.getInt("signup.pipeline.entry.workers", 3));
+        this.queueCapacity = Math.max(1, SignupConfig.getInt("signup.pipeline.queue.capacity", 10));
+        this.reportIntervalMs = SignupConfig.getInt("signup.pipeline.report.seconds", 5) * 1000L;
+        this.otpQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.entryQueue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public int getOtpWorkers() {
+        return otpWorkers;
+    }
+
+    /** Flows whose form is submitted and that wait for an OTP worker; a growing value means OTP lookup is the bottleneck. */
+    public int otpQueueDepth() {
+        return otpQueue.size();
+    }
+
+    /** Flows with an OTP that wait for an entry worker. */
+    public int entryQueueDepth() {
+        return entryQueue.size();
+    }
+
+    public void run(List<ParentConcurrentSignupTest.UserData> users) throws InterruptedException {
+        runStart = System.currentTimeMillis();
+        initializeCsv();
+        System.out.println("🏭 Signup pipeline: " + users.size() + " users, " + submitWorkers + " submit / "
+            + otpWorkers + " OTP / " + entryWorkers + " entry workers, queue capacity " + queueCapacity);
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "signup-pipeline-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(this::reportDepths, reportIntervalMs, reportIntervalMs, TimeUnit.MILLISECONDS);
+        try {
+            List<Thread> submitters = startWorkers("signup-submit-", submitWorkers, () -> submitStage(users));
+            List<Thread> otpFetchers = startWorkers("signup-otp-", otpWorkers, this::otpStage);
+            List<Thread> entrants = startWorkers("signup-entry-", entryWorkers, this::entryStage);
+
+            try {
+                joinAll(submitters);
+                endInput(otpQueue, otpWorkers);
+                joinAll(otpFetchers);
+                endInput(entryQueue, entryWorkers);
+                joinAll(entrants);
+            } catch (InterruptedException e) {
+                stop("pipeline run interrupted");
+                joinAll(workers);
+            }
+        } finally {
+            reporter.shutdownNow();
+        }
+        if (stopReason != null) failQueued();
+        reportDepths();
+
+        long elapsed = System.currentTimeMillis() - runStart;
+        System.out.println("============= 🏭 Pipeline summary =============");
+        System.out.println("   Users:          " + users.size() + " (succeeded " + succeeded.get() + ", failed " + failed.get() + ")");
+        System.out.println("   Peak queues:    otp " + peakOtpQueue + " / " + queueCapacity + ", entry " + peakEntryQueue + " / " + queueCapacity);
+        System.out.println("   Throughput:     " + String.format("%.1f", elapsed > 0 ? (succeeded.get() + failed.get()) * 60000.0 / elapsed : 0) + " signups/min");
+        System.out.println("   Total time:     " + (elapsed / 1000) + "s");
+        if (stopReason != null) throw new InterruptedException("Signup pipeline stopped: " + stopReason);
+    }
+
+    private void submitStage(List<ParentConcurrentSignupTest.UserData> users) {
+        int i;
+        while (stopReason == null && (i = nextUser.getAndIncrement()) < users.size()) {
+            ParentConcurrentSignupTest.UserData u = users.get(i);
+            FlowWatchdog.Watch watch = watchdog.watch("index " + i + " (" + u.getEmail() + ")");
+            Job job = new Job(u, i, watch, ParentConcurrentSignupTest.STEP_METRICS.startFlow(watch::heartbeat));
+            submitting.incrementAndGet();
+            try {
+                job.trace.step("borrow browser");
+                job.driver = signupPool.borrow();
+                job.watch.attach(job.driver);
+                job.wait = new StepWait(job.driver, () -> "parent-concurrent/" + job.trace.currentStep(), Duration.ofSeconds(10));
+                ParentConcurrentSignupTest.submitSignupForm(job.driver, job.wait, u, job.trace);
+                job.trace.step("queued for otp");
+                job.watch.park();
+                otpQueue.put(job);
+            } catch (Throwable t) {
+                fail(job, "submit", t);
+                if (stopOnInterrupt(job, t)) return;
+            } finally {
+                submitting.decrementAndGet();
+            }
+        }
+    }
+
+    private void otpStage() {
+        while (stopReason == null) {
+            Job job = take(otpQueue);
+            if (job == null || job == END) return;
+            job.watch.handOff();
+            fetching.incrementAndGet();
+            try {
+                if (job.watch.isTimedOut()) throw new RuntimeException(job.watch.getTimeoutReason());
+                job.trace.step("fetch otp from mailbox");
+                job.otp = ParentConcurrentSignupTest.fetchOtp(job.user.getEmail());
+                job.trace.step("queued for otp entry");
+                job.watch.park();
+                entryQueue.put(job);
+            } catch (Throwable t) {
+                fail(job, "otp", t);
+                if (stopOnInterrupt(job, t)) return;
+            } finally {
+                fetching.decrementAndGet();
+            }
+        }
+    }
+
+    private void entryStage() {
+        while (stopReason == null) {
+            Job job = take(entryQueue);
+            if (job == null || job == END) return;
+            job.watch.handOff();
+            entering.incrementAndGet();
+            boolean ok = false;
+            Throwable error = null;
+            try {
+                if (job.watch.isTimedOut()) throw new RuntimeException(job.watch.getTimeoutReason());
+                ParentConcurrentSignupTest.completeSignup(job.driver, job.wait, job.user.getEmail(), job.otp, job.trace);
+                ok = true;
+            } catch (Throwable t) {
+                error = t;
+                System.err.println("Pipelined signup failed in entry stage for index " + job.index + ": " + t.getMessage());
+            } finally {
+                entering.decrementAndGet();
+                finish(job, ok);
+            }
+            if (error != null && stopOnInterrupt(job, error)) return;
+        }
+    }
+
+    private void fail(Job job, String stage, Throwable t) {
+        System.err.println("Pipelined signup failed in " + stage + " stage for index " + job.index + ": " + t.getMessage());
+        finish(job, false);
+    }
+
+    private void finish(Job job, boolean ok) {
+        boolean result = ParentConcurrentSignupTest.endFlow(signupPool, job.driver, job.watch, job.trace, job.user, job.index, ok);
+        (result ? succeeded : failed).incrementAndGet();
+    }
+
+    /**
+     * The next job, or null when the worker was interrupted; that stops the pipeline.
+     */
+    private Job take(BlockingQueue<Job> queue) {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            stop(Thread.currentThread().getName() + " interrupted");
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Whether the failure was an interrupt from outside the flow's watchdog. If so, stop the pipeline and keep
+     * the worker's interrupt flag; the caller exits.
+     */
+    private boolean stopOnInterrupt(Job job, Throwable t) {
+        if (!(t instanceof InterruptedException) || job.watch.isTimedOut()) return false;
+        stop(Thread.currentThread().getName() + " interrupted");
+        Thread.currentThread().interrupt();
+        return true;
+    }
+
+    /** Stop every stage: workers leave their loops, and the ones blocked on a queue or a flow are interrupted. */
+    private synchronized void stop(String reason) {
+        if (stopReason != null) return;
+        stopReason = reason;
+        System.err.println("❌ Stopping signup pipeline: " + reason);
+        for (Thread t : workers) {
+            if (t != Thread.currentThread()) t.interrupt();
+        }
+    }
+
+    /** One END per downstream worker; gives up once the pipeline is stopped, as nobody drains the queue then. */
+    private void endInput(BlockingQueue<Job> queue, int count) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            while (!queue.offer(END, 1, TimeUnit.SECONDS)) {
+                if (stopReason != null) return;
+            }
+        }
+    }
+
+    /** Fail the flows still queued when the pipeline stopped, so their browsers go back to the pool. */
+    private void failQueued() {
+        List<Job> left = new ArrayList<>();
+        otpQueue.drainTo(left);
+        entryQueue.drainTo(left);
+        for (Job job : left) {
+            if (job != END) fail(job, "queued", new RuntimeException("pipeline stopped: " + stopReason));
+        }
+    }
+
+    private List<Thread> startWorkers(String namePrefix, int count, Runnable body) {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Thread t = new Thread(body, namePrefix + i);
+            workers.add(t);
+            t.start();
+            threads.add(t);
+        }
+        return threads;
+    }
+
+    private static void joinAll(List<Thread> threads) throws InterruptedException {
+        for (Thread t : threads) t.join();
+    }
+
+    private void reportDepths() {
+        int otpDepth = otpQueue.size();
+        int entryDepth = entryQueue.size();
+        peakOtpQueue = Math.max(peakOtpQueue, otpDepth);
+        peakEntryQueue = Math.max(peakEntryQueue, entryDepth);
+        System.out.println("🚦 Pipeline: submitting " + submitting.get() + " | otp queue " + otpDepth + "/" + queueCapacity
+            + ", fetching " + fetching.get() + " | entry queue " + entryDepth + "/" + queueCapacity
+            + ", entering " + entering.get() + " | done " + succeeded.get() + " ok, " + failed.get() + " failed");
+        appendCsv(otpDepth, entryDepth);
+    }
+
+    private void initializeCsv() {
+        if (new File(depthCsvPath).exists()) return;
+        try (PrintWriter writer = new PrintWriter(new FileWriter(depthCsvPath, true))) {
+            writer.println("Timestamp,ElapsedSeconds,Submitting,OtpQueue,Fetching,EntryQueue,Entering,Succeeded,Failed");
+        } catch (IOException e) {
+            System.err.println("Failed to initialize pipeline CSV: " + e.getMessage());
+        }
+    }
+
+    private synchronized void appendCsv(int otpDepth, int entryDepth) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(depthCsvPath, true))) {
+            String ts = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+            writer.println(ts + "," + ((System.currentTimeMillis() - runStart) / 1000) + "," + submitting.get() + ","
+                + otpDepth + "," + fetching.get() + "," + entryDepth + "," + entering.get() + ","
+                + succeeded.get() + "," + failed.get());
+        } catch (IOException e) {
+            System.err.println("Failed to write pipeline CSV: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.usaflag;
+
+/**
+ * End-of-run reports shared by every signup flow's teardown
+ * - Prints the wait, form-fill, lookup, navigation and OTP reports, then saves the learned locator ranking
+ *   and step timeouts
+ * - Each report prints nothing when its part was not used in this JVM
+ */
+public final class SignupReports {
+
+    private SignupReports() {}
+
+    public static void printAndSave() {
+        ReadyWait.printReport();
+        FormFill.printReport();
+        OptionalElement.printReport();
+        NavigationWait.printReport();
+        OtpPoller.printSharedReport();
+        OtpLatency.printReport();
+        LocatorRegistry.save();
+        StepTimeouts.save();
+    }
+}
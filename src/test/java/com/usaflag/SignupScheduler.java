@@ -0,0 +1,156 @@
+package com.usaflag;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sliding-window signup scheduler
+ * - Keeps a number of worker slots busy for the whole run
+ * - Each slot pulls the next user as soon as its current flow ends (no batch barrier)
+ * - Sustained throughput follows the average flow time instead of the slowest flow of a batch
+ * - The slot count can change live, either from a LoadProfile or through setWorkerSlots
+ */
+public class SignupScheduler<T> {
+
+    /**
+     * One signup flow for one user; index is the user's position in the source list.
+     */
+    public interface Flow<T> {
+        void run(T user, int index) throws Exception;
+    }
+
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger workerIds = new AtomicInteger();
+
+    private volatile int targetSlots;
+    private int liveWorkers; // guarded by this
+    private List<T> users;
+    private Flow<T> flow;
+
+    public SignupScheduler(int workerSlots) {
+        if (workerSlots < 1) {
+            throw new IllegalArgumentException("workerSlots must be >= 1, got " + workerSlots);
+        }
+        this.targetSlots = workerSlots;
+    }
+
+    /**
+     * Run the flow for every user and block until all of them have finished. The slot count stays as
+     * constructed unless something (e.g. AdaptiveConcurrencyController) calls setWorkerSlots.
+     */
+    public void run(List<T> users, Flow<T> flow) throws InterruptedException {
+        run(users, flow, null);
+    }
+
+    /**
+     * Run the flow for every user, following the profile's worker count over time,
+     * and block until all of them have finished.
+     */
+    public void run(List<T> users, Flow<T> flow, LoadProfile profile) throws InterruptedException {
+        synchronized (this) {
+            if (this.users != null) throw new IllegalStateException("SignupScheduler can only run once");
+            this.users = users;
+            this.flow = flow;
+        }
+        long start = System.currentTimeMillis();
+        ScheduledExecutorService ticker = null;
+        if (profile == null) {
+            System.out.println("🚀 Starting " + users.size() + " signups on " + targetSlots + " worker slots");
+            setWorkerSlots(targetSlots);
+        } else {
+            System.out.println("🚀 Starting " + users.size() + " signups with load profile '" + profile + "'");
+            setWorkerSlots(profile.workersAt(0));
+            ticker = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "signup-load-profile"));
+            ticker.scheduleAtFixedRate(() -> {
+                long elapsed = System.currentTimeMillis() - start;
+                int target = profile.workersAt(elapsed);
+                if (target != targetSlots) {
+                    System.out.println("🎚️ Worker slots " + targetSlots + " → " + target + " (" + profile.phaseAt(elapsed) + ")");
+                    setWorkerSlots(target);
+                }
+            }, 1, 1, TimeUnit.SECONDS);
+        }
+
+        try {
+            synchronized (this) {
+                while (liveWorkers > 0 || cursor.get() < users.size()) {
+                    wait();
+                }
+            }
+        } finally {
+            if (ticker != null) ticker.shutdownNow();
+        }
+
+        long elapsedMs = System.currentTimeMillis() - start;
+        double perMinute = elapsedMs > 0 ? completed.get() * 60000.0 / elapsedMs : 0;
+        System.out.println("✅ All slots drained! Processed " + completed.get() + " users in "
+            + (elapsedMs / 1000) + "s (" + String.format("%.1f", perMinute) + " signups/min)");
+    }
+
+    /**
+     * Change the number of worker slots while the run is in progress. New slots start immediately;
+     * surplus slots retire once their current flow ends.
+     */
+    public synchronized void setWorkerSlots(int slots) {
+        if (slots < 1) {
+            throw new IllegalArgumentException("slots must be >= 1, got " + slots);
+        }
+        targetSlots = slots;
+        if (users == null) return;
+        while (liveWorkers < targetSlots && cursor.get() < users.size()) {
+            liveWorkers++;
+            new Thread(this::runSlot, "signup-slot-" + workerIds.incrementAndGet()).start();
+        }
+    }
+
+    public int getWorkerSlots() {
+        return targetSlots;
+    }
+
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    private void runSlot() {
+        boolean retired = false;
+        try {
+            while (!(retired = retireIfSurplus())) {
+                int index = cursor.getAndIncrement();
+                if (index >= users.size()) return;
+                System.out.println("▶️ [" + Thread.currentThread().getName() + "] Picking user index " + index);
+                try {
+                    flow.run(users.get(index), index);
+                } catch (Throwable t) {
+                    System.err.println("❌ [" + Thread.currentThread().getName() + "] Flow failed for user index " + index + ": " + t.getMessage());
+                }
+                int finished = completed.incrementAndGet();
+                System.out.println("📈 Progress: " + finished + " / " + users.size());
+            }
+        } finally {
+            if (!retired) {
+                synchronized (this) {
+                    liveWorkers--;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Called between flows: a slot retires when there are more live workers than the current target.
+     * The check and the decrement happen under one lock so only the surplus count of workers retires.
+     */
+    private synchronized boolean retireIfSurplus() {
+        if (liveWorkers > targetSlots) {
+            liveWorkers--;
+            notifyAll();
+            System.out.println("💤 [" + Thread.currentThread().getName() + "] Slot retired (target " + targetSlots + ")");
+            return true;
+        }
+        return false;
+    }
+}
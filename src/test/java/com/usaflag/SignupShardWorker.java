@@ -0,0 +1,86 @@
+package com.usaflag;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Worker JVM for SignupCoordinator
+ * - Connects to the coordinator on 127.0.0.1, receives its shard of CSV rows
+ * - Runs ParentConcurrentSignupTest's signup flow on its own DriverPool and SignupScheduler
+ * - Streams one STEP line per recorded flow step and one RESULT line per user back to the coordinator
+ * - Writes its result CSVs to its own files (signup.shard.id, see SignupConfig.outputFile) for the coordinator to merge
+ * - Usage: SignupShardWorker <port> <workerId> <slots>
+ */
+public class SignupShardWorker {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            System.err.println("Usage: SignupShardWorker <port> <workerId> <slots>");
+            System.exit(2);
+        }
+        int port = Integer.parseInt(args[0]);
+        int workerId = Integer.parseInt(args[1]);
+        int slots = Integer.parseInt(args[2]);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            out.println("HELLO\t" + workerId);
+
+            List<ParentConcurrentSignupTest.UserData> users = new ArrayList<>();
+            List<Integer> globalIndexes = new ArrayList<>();
+            readShard(in, users, globalIndexes);
+            System.out.println("📥 Worker " + workerId + " received " + users.size() + " users");
+            if (users.isEmpty()) {
+                out.println("DONE");
+                return;
+            }
+
+            ParentConcurrentSignupTest.STEP_METRICS.addListener((step, durationMs, ok) -> {
+                synchronized (out) {
+                    out.println("STEP\t" + step + "\t" + durationMs + "\t" + (ok ? "OK" : "FAILED"));
+                }
+            });
+            DriverPool pool = ParentConcurrentSignupTest.newDriverPool(Math.min(slots, users.size()));
+            FlowWatchdog watchdog = new FlowWatchdog(pool);
+            try {
+                new SignupScheduler<ParentConcurrentSignupTest.UserData>(slots).run(users, (u, localIndex) -> {
+                    int index = globalIndexes.get(localIndex);
+                    long t0 = System.currentTimeMillis();
+                    boolean ok = ParentConcurrentSignupTest.signupFlow(pool, watchdog, u, index);
+                    long durationMs = System.currentTimeMillis() - t0;
+                    synchronized (out) {
+                        out.println("RESULT\t" + index + "\t" + (ok ? "OK" : "FAILED") + "\t" + durationMs
+                            + "\t" + Thread.currentThread().getName() + "\t" + u.getEmail());
+                    }
+                });
+            } finally {
+                watchdog.shutdown();
+                pool.shutdown();
+                SignupReports.printAndSave();
+            }
+            out.println("DONE");
+        }
+    }
+
+    private static void readShard(BufferedReader in, List<ParentConcurrentSignupTest.UserData> users,
+                                  List<Integer> globalIndexes) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null && !line.equals("END")) {
+            String[] f = line.split("\t", 3);
+            if (f.length != 3 || !f[0].equals("USER")) continue;
+            ParentConcurrentSignupTest.UserData u = ParentConcurrentSignupTest.parseCsvLine(f[2]);
+            if (u != null) {
+                users.add(u);
+                globalIndexes.add(Integer.parseInt(f[1]));
+            }
+        }
+    }
+}
@@ -0,0 +1,501 @@
+package com.usaflag;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded SMTP server that accepts every message and keeps it in memory, as a stand-in for YOPmail
+ * - Point the staging portal's SMTP relay at this host and signup.smtp.port (default 2525); no TLS, any AUTH is accepted
+ * - Listens on loopback unless signup.smtp.bind says otherwise (e.g. 0.0.0.0 when staging relays from another host)
+ * - At most signup.smtp.max.sessions connections at once, each dropped after signup.smtp.session.timeout.seconds
+ *   of silence; messages over signup.smtp.max.message.kb are refused with 552
+ * - A mailbox keeps its newest signup.smtp.max.messages.per.mailbox messages; messages older than
+ *   signup.smtp.retention.minutes are dropped, and so are mailboxes left empty that nobody waits on
+ * - Messages are indexed by recipient (lower-cased); multipart, base64 and quoted-printable bodies are decoded
+ * - awaitOtp(email, timeout) blocks until a message with a six-digit code arrives for the address and
+ *   returns the newest code the moment it lands; codes are handed out once, so a resent OTP is not mistaken for the old one
+ * - Runs fully offline; shared() starts one sink per JVM on first use (signup.mail.client=local), so sharded runs,
+ *   with one JVM per worker, cannot use it
+ */
+public final class SmtpSink implements MailboxClient, Closeable {
+
+    private static final Pattern BOUNDARY = Pattern.compile("boundary=\"?([^\";]+)\"?", Pattern.CASE_INSENSITIVE);
+    private static final int MAX_SESSIONS = Math.max(1, SignupConfig.getInt("signup.smtp.max.sessions", 16));
+    private static final int SESSION_TIMEOUT_MS = SignupConfig.getInt("signup.smtp.session.timeout.seconds", 60) * 1000;
+    private static final int MAX_MESSAGE_CHARS = SignupConfig.getInt("signup.smtp.max.message.kb", 1024) * 1024;
+    private static final int MAX_MESSAGES_PER_MAILBOX = Math.max(1, SignupConfig.getInt("signup.smtp.max.messages.per.mailbox", 20));
+    private static final long RETENTION_MS = SignupConfig.getInt("signup.smtp.retention.minutes", 30) * 60_000L;
+
+    private static volatile SmtpSink shared;
+
+    /**
+     * One received message.
+     */
+    public static final class Message {
+        private final String recipient;
+        private final String subject;
+        private final String body;
+        private final String otp;
+        private final long receivedAt;
+        private boolean consumed;
+
+        private Message(String recipient, String subject, String body, String otp, long receivedAt) {
+            this.recipient = recipient;
+            this.subject = subject;
+            this.body = body;
+            this.otp = otp;
+            this.receivedAt = receivedAt;
+        }
+
+        public String getRecipient() { return recipient; }
+        public String getSubject() { return subject; }
+        public String getBody() { return body; }
+        /** The six-digit code in the message, or null. */
+        public String getOtp() { return otp; }
+        public long getReceivedAt() { return receivedAt; }
+    }
+
+    /** Messages of one recipient, oldest first; also the monitor its waiters wait on. */
+    private static final class Mailbox {
+        private final List<Message> messages = new ArrayList<>();
+        private int waiters;
+    }
+
+    private final ServerSocket server;
+    private final ThreadPoolExecutor sessions = new ThreadPoolExecutor(0, MAX_SESSIONS, 60, TimeUnit.SECONDS,
+        new SynchronousQueue<>(), r -> {
+            Thread t = new Thread(r, "smtp-sink-session");
+            t.setDaemon(true);
+            return t;
+        });
+    /** Mailboxes by lower-cased recipient; created, emptied and removed only inside the map's compute calls. */
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private volatile long lastPrune = System.currentTimeMillis();
+
+    private SmtpSink(ServerSocket server) {
+        this.server = server;
+        Thread acceptor = new Thread(this::acceptLoop, "smtp-sink-" + server.getLocalPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Start a sink on the port (0 picks a free one), bound to signup.smtp.bind (default loopback only).
+     */
+    public static SmtpSink start(int port) {
+        try {
+            ServerSocket server = new ServerSocket();
+            server.setReuseAddress(true);
+            server.bind(new InetSocketAddress(InetAddress.getByName(SignupConfig.getString("signup.smtp.bind", "127.0.0.1")), port));
+            System.out.println("📨 SMTP sink listening on " + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort());
+            return new SmtpSink(server);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start SMTP sink on port " + port, e);
+        }
+    }
+
+    /**
+     * The JVM-wide sink on signup.smtp.port, started on first use.
+     */
+    public static SmtpSink shared() {
+        if (shared == null) {
+            synchronized (SmtpSink.class) {
+                if (shared == null) shared = start(SignupConfig.getInt("signup.smtp.port", 2525));
+            }
+        }
+        return shared;
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Block until an unused six-digit code arrives for the address, then return the newest one.
+     *
+     * @throws RuntimeException if no code arrives within the timeout
+     */
+    @Override
+    public String awaitOtp(String email, Duration timeout) throws InterruptedException {
+        return await(email, timeout, SmtpSink::takeNewestOtp, "verification code");
+    }
+
+    @Override
+    public String pollOtp(String email) {
+        Mailbox mailbox = mailboxes.get(key(email));
+        if (mailbox == null) return null;
+        synchronized (mailbox) {
+            return takeNewestOtp(mailbox.messages);
+        }
+    }
+
+    @Override
+    public void skipExisting(String email) {
+        Mailbox mailbox = mailboxes.get(key(email));
+        if (mailbox == null) return;
+        synchronized (mailbox) {
+            for (Message m : mailbox.messages) m.consumed = true;
+        }
+    }
+
+    /**
+     * Receive time of the newest handed-out code's message: every message up to it is consumed.
+     */
+    @Override
+    public long deliveredAt(String email) {
+        Mailbox mailbox = mailboxes.get(key(email));
+        if (mailbox == null) return 0;
+        synchronized (mailbox) {
+            for (int i = mailbox.messages.size() - 1; i >= 0; i--) {
+                Message m = mailbox.messages.get(i);
+                if (m.consumed && m.otp != null) return m.receivedAt;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Block until a message containing the text arrives for the address, then return its body.
+     *
+     * @throws RuntimeException if no such message arrives within the timeout
+     */
+    @Override
+    public String awaitMessage(String email, String containing, Duration timeout) throws InterruptedException {
+        return await(email, timeout, mailbox -> {
+            for (int i = mailbox.size() - 1; i >= 0; i--) {
+                if (mailbox.get(i).body.contains(containing)) return mailbox.get(i).body;
+            }
+            return null;
+        }, "message containing '" + containing + "'");
+    }
+
+    private String await(String email, Duration timeout, Function<List<Message>, String> lookup, String what)
+            throws InterruptedException {
+        // Registered as a waiter in the same compute that finds the mailbox, so pruning cannot drop it under us
+        Mailbox mailbox = mailboxes.compute(key(email), (k, box) -> {
+            Mailbox b = box == null ? new Mailbox() : box;
+            synchronized (b) {
+                b.waiters++;
+            }
+            return b;
+        });
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        synchronized (mailbox) {
+            try {
+                while (true) {
+                    String found = lookup.apply(mailbox.messages);
+                    if (found != null) return found;
+                    long left = deadline - System.currentTimeMillis();
+                    if (left <= 0) {
+                        throw new RuntimeException("No " + what + " for " + email + " within " + timeout.toMillis() + " ms");
+                    }
+                    mailbox.wait(left);
+                }
+            } finally {
+                mailbox.waiters--;
+            }
+        }
+    }
+
+    /** The newest unconsumed code; every message up to it is marked consumed. Caller holds the mailbox lock. */
+    private static String takeNewestOtp(List<Message> mailbox) {
+        for (int i = mailbox.size() - 1; i >= 0; i--) {
+            Message m = mailbox.get(i);
+            if (m.consumed) return null;
+            if (m.otp != null) {
+                for (int j = 0; j <= i; j++) mailbox.get(j).consumed = true;
+                return m.otp;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Every message received for the address, oldest first.
+     */
+    public List<Message> messages(String email) {
+        Mailbox mailbox = mailboxes.get(key(email));
+        if (mailbox == null) return Collections.emptyList();
+        synchronized (mailbox) {
+            return Collections.unmodifiableList(new ArrayList<>(mailbox.messages));
+        }
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Drop messages past the retention time, and mailboxes left empty without waiters. Runs at most once a minute.
+     */
+    private void prune(long now) {
+        if (now - lastPrune < 60_000) return;
+        lastPrune = now;
+        for (String key : mailboxes.keySet()) {
+            mailboxes.computeIfPresent(key, (k, box) -> {
+                synchronized (box) {
+                    box.messages.removeIf(m -> now - m.receivedAt > RETENTION_MS);
+                    return box.messages.isEmpty() && box.waiters == 0 ? null : box;
+                }
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException ignore) {}
+        sessions.shutdownNow();
+    }
+
+    // ---- SMTP ------------------------------------------------------------------------------------------
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                try {
+                    sessions.execute(() -> session(socket));
+                } catch (RejectedExecutionException e) {
+                    refuse(socket);
+                }
+            } catch (SocketException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("SMTP sink accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /** All session threads busy: tell the client to retry later. */
+    private static void refuse(Socket socket) {
+        try (Socket s = socket) {
+            reply(s.getOutputStream(), "421 usaflag-smtp-sink too many connections, try again later");
+        } catch (IOException ignore) {}
+    }
+
+    private void session(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.ISO_8859_1));
+             OutputStream out = s.getOutputStream()) {
+            s.setSoTimeout(SESSION_TIMEOUT_MS);
+            reply(out, "220 usaflag-smtp-sink ESMTP");
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line.toUpperCase(Locale.ROOT);
+                switch (command) {
+                    case "EHLO":
+                        reply(out, "250-usaflag-smtp-sink\r\n250-8BITMIME\r\n250-SIZE " + MAX_MESSAGE_CHARS
+                            + "\r\n250-AUTH PLAIN LOGIN\r\n250 SMTPUTF8");
+                        break;
+                    case "HELO":
+                        reply(out, "250 usaflag-smtp-sink");
+                        break;
+                    case "AUTH":
+                        authenticate(line, in, out);
+                        break;
+                    case "MAIL":
+                        recipients.clear();
+                        reply(out, "250 OK");
+                        break;
+                    case "RCPT":
+                        recipients.add(address(line.substring(line.indexOf(':') + 1)));
+                        reply(out, "250 OK");
+                        break;
+                    case "DATA":
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        String data = readData(in);
+                        if (data == null) {
+                            reply(out, "552 Message exceeds " + MAX_MESSAGE_CHARS / 1024 + " KB");
+                        } else {
+                            deliver(recipients, data);
+                            reply(out, "250 OK queued");
+                        }
+                        recipients.clear();
+                        break;
+                    case "RSET":
+                        recipients.clear();
+                        reply(out, "250 OK");
+                        break;
+                    case "NOOP":
+                        reply(out, "250 OK");
+                        break;
+                    case "VRFY":
+                        reply(out, "252 Cannot verify, will accept");
+                        break;
+                    case "QUIT":
+                        reply(out, "221 Bye");
+                        return;
+                    default:
+                        reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (SocketTimeoutException e) {
+            System.err.println("SMTP sink session idle for " + SESSION_TIMEOUT_MS / 1000 + "s; closed");
+        } catch (IOException e) {
+            System.err.println("SMTP sink session failed: " + e.getMessage());
+        }
+    }
+
+    /** Accept any credentials: AUTH PLAIN with or without initial response, AUTH LOGIN. */
+    private static void authenticate(String line, BufferedReader in, OutputStream out) throws IOException {
+        String[] parts = line.trim().split("\\s+");
+        String mechanism = parts.length > 1 ? parts[1].toUpperCase(Locale.ROOT) : "";
+        if ("LOGIN".equals(mechanism)) {
+            reply(out, "334 VXNlcm5hbWU6");
+            in.readLine();
+            reply(out, "334 UGFzc3dvcmQ6");
+            in.readLine();
+        } else if ("PLAIN".equals(mechanism) && parts.length < 3) {
+            reply(out, "334 ");
+            in.readLine();
+        }
+        reply(out, "235 Authentication successful");
+    }
+
+    /** The message up to the lone dot; null when it is over the size cap (the rest is read and discarded). */
+    private static String readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder();
+        boolean tooBig = false;
+        String line;
+        while ((line = in.readLine()) != null && !".".equals(line)) {
+            if (tooBig) continue;
+            data.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+            if (data.length() > MAX_MESSAGE_CHARS) {
+                tooBig = true;
+                data.setLength(0);
+            }
+        }
+        return tooBig ? null : data.toString();
+    }
+
+    private static void reply(OutputStream out, String text) throws IOException {
+        out.write((text + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    /** "<Parent.X@yopmail.com> SIZE=123" as "parent.x@yopmail.com". */
+    private static String address(String arg) {
+        String a = arg.trim();
+        int open = a.indexOf('<');
+        int close = a.indexOf('>');
+        if (open >= 0 && close > open) a = a.substring(open + 1, close);
+        else if (a.contains(" ")) a = a.substring(0, a.indexOf(' '));
+        return a.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void deliver(List<String> recipients, String raw) {
+        long receivedAt = System.currentTimeMillis();
+        Map<String, String> headers = headers(raw);
+        String subject = headers.getOrDefault("subject", "");
+        String body = decode(raw);
+        String otp = MailTemplate.SIGNUP_OTP.extract(body);
+        for (String recipient : recipients) {
+            mailboxes.compute(recipient, (k, box) -> {
+                Mailbox b = box == null ? new Mailbox() : box;
+                synchronized (b) {
+                    b.messages.add(new Message(recipient, subject, body, otp, receivedAt));
+                    if (b.messages.size() > MAX_MESSAGES_PER_MAILBOX) b.messages.remove(0);
+                    b.notifyAll();
+                }
+                return b;
+            });
+            System.out.println("📨 SMTP sink: mail for " + recipient + " (" + subject + ")" + (otp != null ? ", code " + otp : ""));
+        }
+        prune(receivedAt);
+    }
+
+    // ---- MIME ------------------------------------------------------------------------------------------
+
+    /** Unfolded headers of a message or part, keys lower-cased. */
+    private static Map<String, String> headers(String raw) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        int end = headerEnd(raw);
+        String block = raw.substring(0, end).replaceAll("\r\n[ \t]+", " ");
+        for (String line : block.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon > 0) headers.putIfAbsent(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+        }
+        return headers;
+    }
+
+    private static int headerEnd(String raw) {
+        int end = raw.indexOf("\r\n\r\n");
+        return end < 0 ? raw.length() : end;
+    }
+
+    /** Decoded text of a message or part; multipart bodies are the concatenation of their parts. */
+    static String decode(String raw) {
+        Map<String, String> headers = headers(raw);
+        int end = headerEnd(raw);
+        String body = end + 4 <= raw.length() ? raw.substring(end + 4) : "";
+        String type = headers.getOrDefault("content-type", "text/plain");
+        Matcher boundary = BOUNDARY.matcher(type);
+        if (type.toLowerCase(Locale.ROOT).startsWith("multipart/") && boundary.find()) {
+            StringBuilder text = new StringBuilder();
+            String[] parts = body.split(Pattern.quote("--" + boundary.group(1)));
+            for (int i = 1; i < parts.length; i++) {
+                String part = parts[i];
+                if (part.startsWith("--")) break;
+                text.append(decode(part.replaceFirst("^\r\n", ""))).append('\n');
+            }
+            return text.toString();
+        }
+        String encoding = headers.getOrDefault("content-transfer-encoding", "").toLowerCase(Locale.ROOT);
+        if (encoding.equals("base64")) {
+            return new String(Base64.getMimeDecoder().decode(body), StandardCharsets.UTF_8);
+        }
+        if (encoding.equals("quoted-printable")) {
+            return quotedPrintable(body);
+        }
+        return new String(body.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+    }
+
+    private static String quotedPrintable(String body) {
+        String joined = body.replace("=\r\n", "");
+        byte[] bytes = new byte[joined.length()];
+        int n = 0;
+        for (int i = 0; i < joined.length(); i++) {
+            char c = joined.charAt(i);
+            if (c == '=' && i + 2 < joined.length() && isHex(joined.charAt(i + 1)) && isHex(joined.charAt(i + 2))) {
+                bytes[n++] = (byte) Integer.parseInt(joined.substring(i + 1, i + 3), 16);
+                i += 2;
+            } else {
+                bytes[n++] = (byte) c;
+            }
+        }
+        return new String(bytes, 0, n, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isHex(char c) {
+        return Character.digit(c, 16) >= 0;
+    }
+}
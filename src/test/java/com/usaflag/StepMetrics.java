@@ -0,0 +1,177 @@
+package com.usaflag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Rolling step-latency and flow-outcome metrics shared by concurrent signup flows
+ * - Each flow opens a FlowTrace and calls step("name") as it moves on; the previous step is timed then
+ * - snapshotSince() gives p95 step latency and failure ratio over a time window
+ * - The p95 covers portal and browser steps only: the mailbox wait and the pipeline's hand-off queues around it
+ *   measure the mail provider and our own stages, not the portal's load
+ * - Samples older than ten minutes are dropped; a StepListener sees every step as it is recorded
+ */
+public class StepMetrics {
+
+    private static final long RETENTION_MS = 10 * 60_000;
+
+    /** Steps spent waiting for the OTP mail or for the next pipeline stage; kept out of the latency signal. */
+    static final Set<String> MAIL_WAIT_STEPS = Set.of("queued for otp", "fetch otp from mailbox", "queued for otp entry");
+
+    private static final class Sample {
+        private final long at;
+        private final String step;
+        private final long durationMs;
+        private final boolean ok;
+
+        private Sample(long at, String step, long durationMs, boolean ok) {
+            this.at = at;
+            this.step = step;
+            this.durationMs = durationMs;
+            this.ok = ok;
+        }
+    }
+
+    /**
+     * Aggregates over one window.
+     */
+    public static final class Snapshot {
+        public final int steps;
+        public final long p95StepMs;
+        public final int flows;
+        public final int failedFlows;
+
+        private Snapshot(int steps, long p95StepMs, int flows, int failedFlows) {
+            this.steps = steps;
+            this.p95StepMs = p95StepMs;
+            this.flows = flows;
+            this.failedFlows = failedFlows;
+        }
+
+        public double failureRatio() {
+            return flows == 0 ? 0 : (double) failedFlows / flows;
+        }
+    }
+
+    /**
+     * Receives every recorded step, e.g. to stream it to SignupCoordinator.
+     */
+    public interface StepListener {
+        void stepRecorded(String step, long durationMs, boolean ok);
+    }
+
+    /**
+     * Step tracker for one flow. Not thread-safe; owned by the flow's thread.
+     */
+    public final class FlowTrace {
+        private final Consumer<String> onStep;
+        private String currentStep;
+        private long stepStart;
+        private boolean finished;
+
+        private FlowTrace(Consumer<String> onStep) {
+            this.onStep = onStep;
+        }
+
+        /**
+         * Close the current step (if any) as successful and start timing the next one.
+         */
+        public void step(String name) {
+            long now = System.currentTimeMillis();
+            if (currentStep != null) {
+                recordStep(currentStep, now - stepStart, true);
+            }
+            currentStep = name;
+            stepStart = now;
+            onStep.accept(name);
+        }
+
+        public String currentStep() {
+            return currentStep;
+        }
+
+        /**
+         * Close the last step and record the flow outcome. A failed flow marks its last step as failed.
+         */
+        public void finish(boolean ok) {
+            if (finished) return;
+            finished = true;
+            if (currentStep != null) {
+                recordStep(currentStep, System.currentTimeMillis() - stepStart, ok);
+            }
+            recordFlow(ok);
+        }
+    }
+
+    private final ConcurrentLinkedDeque<Sample> stepSamples = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedDeque<Sample> flowSamples = new ConcurrentLinkedDeque<>();
+    private final List<StepListener> listeners = new CopyOnWriteArrayList<>();
+
+    public FlowTrace startFlow() {
+        return new FlowTrace(step -> {});
+    }
+
+    /**
+     * Start a trace that also reports every new step to the listener (e.g. a watchdog heartbeat).
+     */
+    public FlowTrace startFlow(Consumer<String> onStep) {
+        return new FlowTrace(onStep);
+    }
+
+    public void addListener(StepListener listener) {
+        listeners.add(listener);
+    }
+
+    public void recordStep(String step, long durationMs, boolean ok) {
+        long now = System.currentTimeMillis();
+        stepSamples.addLast(new Sample(now, step, durationMs, ok));
+        prune(stepSamples, now);
+        for (StepListener listener : listeners) listener.stepRecorded(step, durationMs, ok);
+    }
+
+    public void recordFlow(boolean ok) {
+        long now = System.currentTimeMillis();
+        flowSamples.addLast(new Sample(now, "flow", 0, ok));
+        prune(flowSamples, now);
+    }
+
+    /**
+     * Aggregate every sample recorded at or after the given timestamp; mail-wait steps are left out of the p95.
+     */
+    public Snapshot snapshotSince(long sinceMs) {
+        List<Long> durations = new ArrayList<>();
+        for (Sample s : stepSamples) {
+            if (s.at >= sinceMs && !MAIL_WAIT_STEPS.contains(s.step)) durations.add(s.durationMs);
+        }
+        int flows = 0;
+        int failed = 0;
+        for (Sample s : flowSamples) {
+            if (s.at >= sinceMs) {
+                flows++;
+                if (!s.ok) failed++;
+            }
+        }
+        Collections.sort(durations);
+        return new Snapshot(durations.size(), percentile(durations, 95), flows, failed);
+    }
+
+    static long percentile(List<Long> sorted, int p) {
+        if (sorted.isEmpty()) return 0;
+        int idx = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(idx, sorted.size() - 1)));
+    }
+
+    private static void prune(ConcurrentLinkedDeque<Sample> samples, long now) {
+        Iterator<Sample> it = samples.iterator();
+        while (it.hasNext()) {
+            if (now - it.next().at <= RETENTION_MS) break;
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.usaflag;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-step wait timeouts learned from recorded step durations
+ * - Timeout for a named step = p99 of its recorded waits × 1.5 (signup.timeouts.percentile / .multiplier),
+ *   clamped to [floor, ceiling]; steps with fewer than signup.timeouts.min.samples samples use the caller's default
+ * - Samples are kept per step (newest signup.timeouts.max.samples) in StepTimeouts_History.csv between runs
+ * - A wait that times out is only counted (recordTimeout): its true duration is unknown, and recording the timeout as a
+ *   sample would raise the next timeout by the multiplier on every run
+ * - save() merges this JVM's new samples into the file under a file lock (sharded workers save concurrently)
+ */
+public final class StepTimeouts {
+
+    private static final String HISTORY_FILE = SignupConfig.getString("signup.timeouts.file", "StepTimeouts_History.csv");
+    private static final int PERCENTILE = SignupConfig.getInt("signup.timeouts.percentile", 99);
+    private static final double MULTIPLIER = SignupConfig.getDouble("signup.timeouts.multiplier", 1.5);
+    private static final int MIN_SAMPLES = SignupConfig.getInt("signup.timeouts.min.samples", 20);
+    private static final int MAX_SAMPLES = SignupConfig.getInt("signup.timeouts.max.samples", 500);
+    private static final long FLOOR_MS = SignupConfig.getInt("signup.timeouts.floor.ms", 2000);
+    private static final long CEILING_MS = SignupConfig.getInt("signup.timeouts.ceiling.ms", 60000);
+
+    /** Samples loaded from the history file plus everything recorded in this JVM, newest last. */
+    private static final Map<String, Deque<Long>> SAMPLES = new ConcurrentHashMap<>();
+    /** Samples recorded in this JVM and not yet saved. */
+    private static final Map<String, List<Long>> UNSAVED = new ConcurrentHashMap<>();
+    /** Timed-out waits per step in this JVM; kept out of the samples. */
+    private static final Map<String, LongAdder> TIMEOUTS = new ConcurrentHashMap<>();
+    /** Learned timeouts, recomputed when a step gets a new sample. */
+    private static final Map<String, Long> LEARNED_MS = new ConcurrentHashMap<>();
+
+    static {
+        Map<String, Deque<Long>> loaded = readHistory();
+        SAMPLES.putAll(loaded);
+        if (!loaded.isEmpty()) {
+            int samples = 0;
+            for (Deque<Long> d : loaded.values()) samples += d.size();
+            System.out.println("⏱️ Loaded step timing history: " + loaded.size() + " steps, " + samples + " samples from " + HISTORY_FILE);
+        }
+    }
+
+    private StepTimeouts() {}
+
+    /**
+     * Timeout to use for the named step: learned from history, or the default until there is enough history.
+     */
+    public static Duration timeoutFor(String step, Duration defaultTimeout) {
+        Long learned = LEARNED_MS.computeIfAbsent(step, StepTimeouts::learn);
+        return learned > 0 ? Duration.ofMillis(learned) : defaultTimeout;
+    }
+
+    public static void record(String step, long durationMs) {
+        Deque<Long> samples = SAMPLES.computeIfAbsent(step, k -> new ArrayDeque<>());
+        synchronized (samples) {
+            samples.addLast(durationMs);
+            while (samples.size() > MAX_SAMPLES) samples.pollFirst();
+        }
+        List<Long> unsaved = UNSAVED.computeIfAbsent(step, k -> new ArrayList<>());
+        synchronized (unsaved) {
+            unsaved.add(durationMs);
+        }
+        LEARNED_MS.remove(step);
+    }
+
+    /**
+     * The step's wait ran out. Counted for the report only, so a step that keeps timing out keeps its timeout.
+     */
+    public static void recordTimeout(String step) {
+        TIMEOUTS.computeIfAbsent(step, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Drop everything this JVM holds for the step, so a later save() does not write it; for offline tests.
+     */
+    static void forget(String step) {
+        SAMPLES.remove(step);
+        UNSAVED.remove(step);
+        TIMEOUTS.remove(step);
+        LEARNED_MS.remove(step);
+    }
+
+    /**
+     * Learned timeout in ms, or 0 when the step has too few samples.
+     */
+    private static long learn(String step) {
+        Deque<Long> samples = SAMPLES.get(step);
+        if (samples == null) return 0;
+        List<Long> sorted;
+        synchronized (samples) {
+            if (samples.size() < MIN_SAMPLES) return 0;
+            sorted = new ArrayList<>(samples);
+        }
+        Collections.sort(sorted);
+        long timeout = (long) (StepMetrics.percentile(sorted, PERCENTILE) * MULTIPLIER);
+        return Math.max(FLOOR_MS, Math.min(CEILING_MS, timeout));
+    }
+
+    /**
+     * Merge this JVM's unsaved samples into the history file and print the learned timeouts.
+     */
+    public static void save() {
+        if (UNSAVED.isEmpty()) return;
+        File lockFile = new File(HISTORY_FILE + ".lock");
+        try (RandomAccessFile raf = new RandomAccessFile(lockFile, "rw")) {
+            FileLock lock = raf.getChannel().lock();
+            try {
+                Map<String, Deque<Long>> merged = readHistory();
+                for (Map.Entry<String, List<Long>> e : UNSAVED.entrySet()) {
+                    Deque<Long> target = merged.computeIfAbsent(e.getKey(), k -> new ArrayDeque<>());
+                    synchronized (e.getValue()) {
+                        target.addAll(e.getValue());
+                        e.getValue().clear();
+                    }
+                    while (target.size() > MAX_SAMPLES) target.pollFirst();
+                }
+                writeHistory(merged);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to save step timing history: " + e.getMessage());
+            return;
+        }
+        printLearned();
+    }
+
+    private static void printLearned() {
+        System.out.println("============= ⏱️ Learned step timeouts (p" + PERCENTILE + " × " + MULTIPLIER + ") =============");
+        for (String step : new TreeMap<>(SAMPLES).keySet()) {
+            long learned = learn(step);
+            int n = SAMPLES.get(step).size();
+            LongAdder timeouts = TIMEOUTS.get(step);
+            System.out.println(String.format("   %-48s %4d samples  %s%s", step, n,
+                learned > 0 ? learned + " ms" : "default (needs " + MIN_SAMPLES + ")",
+                timeouts != null ? ", " + timeouts.sum() + " timed out this run" : ""));
+        }
+    }
+
+    private static Map<String, Deque<Long>> readHistory() {
+        Map<String, Deque<Long>> history = new TreeMap<>();
+        File file = new File(HISTORY_FILE);
+        if (!file.exists()) return history;
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            boolean isFirst = true;
+            while ((line = br.readLine()) != null) {
+                if (isFirst) { isFirst = false; continue; }
+                int comma = line.lastIndexOf(',');
+                if (comma <= 0) continue;
+                try {
+                    long ms = Long.parseLong(line.substring(comma + 1).trim());
+                    history.computeIfAbsent(line.substring(0, comma), k -> new ArrayDeque<>()).addLast(ms);
+                } catch (NumberFormatException ignore) {}
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to read step timing history: " + e.getMessage());
+        }
+        return history;
+    }
+
+    private static void writeHistory(Map<String, Deque<Long>> history) throws IOException {
+        File tmp = new File(HISTORY_FILE + ".tmp");
+        try (PrintWriter writer = new PrintWriter(new FileWriter(tmp, false))) {
+            writer.println("Step,DurationMs");
+            for (Map.Entry<String, Deque<Long>> e : history.entrySet()) {
+                for (Long ms : e.getValue()) writer.println(e.getKey() + "," + ms);
+            }
+        }
+        Files.move(tmp.toPath(), new File(HISTORY_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,46 @@
+package com.usaflag;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+/**
+ * Offline regression checks for StepTimeouts; needs no browser, and each test forgets its step so a later save()
+ * in the suite JVM does not write it to the history file
+ * - A step that always times out keeps the caller's default instead of growing run after run
+ * - Timeouts mixed into a step with real samples leave its learned timeout where the samples put it
+ */
+public class StepTimeoutsTest {
+
+    private static final Duration DEFAULT = Duration.ofSeconds(10);
+
+    @Test
+    public void alwaysTimingOutStepKeepsItsTimeout() {
+        String step = "test/always times out " + System.nanoTime();
+        try {
+            for (int run = 0; run < 100; run++) {
+                Assert.assertEquals(StepTimeouts.timeoutFor(step, DEFAULT), DEFAULT, "timeout after " + run + " timeouts");
+                StepTimeouts.recordTimeout(step);
+            }
+        } finally {
+            StepTimeouts.forget(step);
+        }
+    }
+
+    @Test
+    public void timeoutsDoNotRaiseLearnedTimeout() {
+        String step = "test/sometimes times out " + System.nanoTime();
+        try {
+            for (int i = 0; i < 50; i++) StepTimeouts.record(step, 4000);
+            Duration learned = StepTimeouts.timeoutFor(step, DEFAULT);
+            Assert.assertEquals(learned, Duration.ofMillis(6000), "p99 of 4000 ms samples × 1.5");
+            for (int run = 0; run < 100; run++) {
+                StepTimeouts.recordTimeout(step);
+                Assert.assertEquals(StepTimeouts.timeoutFor(step, DEFAULT), learned, "timeout after " + (run + 1) + " timeouts");
+            }
+        } finally {
+            StepTimeouts.forget(step);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.usaflag;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * WebDriverWait whose timeout comes from StepTimeouts for the step it is waiting in
+ * - The step name is read on every until(), so one wait can follow a flow through its steps (e.g. a FlowTrace)
+ * - Each until() records its duration under the step, so the history keeps learning
+ * - While a learned timeout is shorter than the driver's implicit wait, the implicit wait is switched off for
+ *   the duration of until(); otherwise a single missing-element lookup would outlast the timeout
+ */
+public class StepWait extends WebDriverWait {
+
+    private final WebDriver driver;
+    private final Supplier<String> step;
+    private final Duration defaultTimeout;
+    private Duration implicitWait;
+
+    public StepWait(WebDriver driver, String step, Duration defaultTimeout) {
+        this(driver, () -> step, defaultTimeout);
+    }
+
+    public StepWait(WebDriver driver, Supplier<String> step, Duration defaultTimeout) {
+        super(driver, defaultTimeout);
+        this.driver = driver;
+        this.step = step;
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        String name = step.get();
+        Duration timeout = StepTimeouts.timeoutFor(name, defaultTimeout);
+        withTimeout(timeout);
+        if (implicitWait == null) {
+            implicitWait = driver.manage().timeouts().getImplicitWaitTimeout();
+        }
+        boolean shortenImplicit = timeout.compareTo(implicitWait) < 0;
+        if (shortenImplicit) driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        long start = System.currentTimeMillis();
+        try {
+            V value = super.until(isTrue);
+            StepTimeouts.record(name, System.currentTimeMillis() - start);
+            return value;
+        } catch (TimeoutException e) {
+            StepTimeouts.recordTimeout(name);
+            throw e;
+        } finally {
+            if (shortenImplicit) driver.manage().timeouts().implicitlyWait(implicitWait);
+        }
+    }
+}
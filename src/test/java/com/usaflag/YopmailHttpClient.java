@@ -0,0 +1,249 @@
+package com.usaflag;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads YOPmail inboxes over plain HTTP instead of driving a browser tab
+ * - Session tokens (yp from the start page, yj from webmail.js) are fetched once and shared by all threads,
+ *   and refetched when YOPmail stops accepting them
+ * - Each poll is one inbox request; only message ids not looked at before are fetched as mail pages
+ * - Polls every signup.mail.poll.ms (default 1000) until the mail lands or the timeout passes
+ * - Requests and bytes are counted in total and per thread; every code logs what its own wait cost
+ */
+public final class YopmailHttpClient implements MailboxClient {
+
+    private static final Pattern YP = Pattern.compile("id=\"yp\"[^>]*value=\"([^\"]+)\"|value=\"([^\"]+)\"[^>]*id=\"yp\"");
+    private static final Pattern VERSION = Pattern.compile("/ver/([0-9.]+)/webmail\\.js");
+    private static final Pattern YJ = Pattern.compile("yj=([0-9a-zA-Z]+)");
+    private static final Pattern MESSAGE_ID = Pattern.compile("<div[^>]*\\bid=\"e_([^\"]+)\"");
+
+    private static volatile YopmailHttpClient shared;
+
+    private final String baseUrl;
+    private final Duration pollInterval;
+    private final HttpClient http = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .build();
+    private volatile Session session;
+    /** Message ids already looked at (code handed out, older than a handed-out code, or no code), per inbox. */
+    private final Map<String, Set<String>> usedIds = new ConcurrentHashMap<>();
+    /** When the inbox listing with the last handed-out code came back, per inbox. */
+    private final Map<String, Long> deliveredAt = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    /** Requests and bytes sent by the calling thread, so a wait's cost excludes other threads' traffic. */
+    private final ThreadLocal<long[]> threadTraffic = ThreadLocal.withInitial(() -> new long[2]);
+
+    /** Tokens the inbox request must carry. */
+    private static final class Session {
+        private final String yp;
+        private final String yj;
+        private final String version;
+
+        private Session(String yp, String yj, String version) {
+            this.yp = yp;
+            this.yj = yj;
+            this.version = version;
+        }
+    }
+
+    public YopmailHttpClient() {
+        this(SignupConfig.getString("signup.mail.yopmail.url", "https://yopmail.com"),
+             Duration.ofMillis(SignupConfig.getInt("signup.mail.poll.ms", 1000)));
+    }
+
+    YopmailHttpClient(String baseUrl, Duration pollInterval) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * The JVM-wide client, so every flow shares one set of session tokens and connections.
+     */
+    public static YopmailHttpClient shared() {
+        if (shared == null) {
+            synchronized (YopmailHttpClient.class) {
+                if (shared == null) shared = new YopmailHttpClient();
+            }
+        }
+        return shared;
+    }
+
+    public long getRequests() { return requests.sum(); }
+    public long getBytes() { return bytes.sum(); }
+
+    @Override
+    public String awaitOtp(String email, Duration timeout) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        long deadline = start + timeout.toMillis();
+        long[] traffic = threadTraffic.get();
+        long requestsBefore = traffic[0];
+        long bytesBefore = traffic[1];
+        while (true) {
+            String otp = pollOtp(email);
+            if (otp != null) {
+                System.out.println("📧 verification code for " + email + " from YOPmail in " + (System.currentTimeMillis() - start)
+                    + " ms (" + (traffic[0] - requestsBefore) + " requests, " + (traffic[1] - bytesBefore) / 1024 + " KB)");
+                return otp;
+            }
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) {
+                throw new RuntimeException("No verification code for " + email + " on YOPmail within " + timeout.toMillis() + " ms");
+            }
+            Thread.sleep(Math.min(left, pollInterval.toMillis()));
+        }
+    }
+
+    /**
+     * One inbox request, plus one request per message not looked at before. Once a code is found, every
+     * message listed with it counts as used, so an older code is never handed out after a newer one.
+     */
+    @Override
+    public String pollOtp(String email) {
+        String login = login(email);
+        Set<String> used = usedIds.computeIfAbsent(login, k -> ConcurrentHashMap.newKeySet());
+        List<String> ids = inbox(login);
+        long listedAt = System.currentTimeMillis();
+        for (String id : ids) {
+            if (used.contains(id)) continue;
+            String body = get("/en/mail?b=" + encode(login) + "&id=m" + id);
+            if (body == null) continue;
+            String otp = MailTemplate.SIGNUP_OTP.extract(body);
+            used.add(id);
+            if (otp != null) {
+                used.addAll(ids);
+                deliveredAt.put(login, listedAt);
+                return otp;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * One inbox request; every message listed now counts as used.
+     */
+    @Override
+    public void skipExisting(String email) {
+        String login = login(email);
+        usedIds.computeIfAbsent(login, k -> ConcurrentHashMap.newKeySet()).addAll(inbox(login));
+    }
+
+    /**
+     * YOPmail shows no usable receive time, so this is when the inbox first listed the message.
+     */
+    @Override
+    public long deliveredAt(String email) {
+        return deliveredAt.getOrDefault(login(email), 0L);
+    }
+
+    @Override
+    public String awaitMessage(String email, String containing, Duration timeout) throws InterruptedException {
+        String login = login(email);
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        Set<String> looked = new HashSet<>();
+        while (true) {
+            for (String id : inbox(login)) {
+                if (looked.contains(id)) continue;
+                String body = get("/en/mail?b=" + encode(login) + "&id=m" + id);
+                if (body == null) continue;
+                looked.add(id);
+                if (body.contains(containing)) return body;
+            }
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) {
+                throw new RuntimeException("No message containing '" + containing + "' for " + email + " on YOPmail within "
+                    + timeout.toMillis() + " ms");
+            }
+            Thread.sleep(Math.min(left, pollInterval.toMillis()));
+        }
+    }
+
+    /** Message ids in the inbox, newest first. */
+    private List<String> inbox(String login) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Session s = session(attempt > 0);
+            String page = get("/en/inbox?login=" + encode(login) + "&p=1&d=&ctrl=&yp=" + encode(s.yp) + "&yj=" + encode(s.yj)
+                + "&v=" + encode(s.version) + "&r_c=&id=");
+            if (page == null) continue;
+            List<String> ids = new ArrayList<>();
+            Matcher m = MESSAGE_ID.matcher(page);
+            while (m.find()) ids.add(m.group(1));
+            return ids;
+        }
+        throw new RuntimeException("YOPmail rejected the inbox request for " + login);
+    }
+
+    /** The session tokens; refetched when asked to or not fetched yet. */
+    private Session session(boolean refresh) {
+        Session s = session;
+        if (s != null && !refresh) return s;
+        synchronized (this) {
+            if (session != null && session != s) return session;
+            String start = get("/en/");
+            if (start == null) throw new RuntimeException("YOPmail start page unavailable");
+            Matcher yp = YP.matcher(start);
+            Matcher version = VERSION.matcher(start);
+            if (!yp.find() || !version.find()) throw new RuntimeException("YOPmail start page has no yp token or webmail.js version");
+            String script = get("/ver/" + version.group(1) + "/webmail.js");
+            Matcher yj = script == null ? null : YJ.matcher(script);
+            if (yj == null || !yj.find()) throw new RuntimeException("YOPmail webmail.js has no yj token");
+            session = new Session(yp.group(1) != null ? yp.group(1) : yp.group(2), yj.group(1), version.group(1));
+            return session;
+        }
+    }
+
+    /** GET the path; the body on 2xx, null otherwise. */
+    private String get(String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(15))
+            .header("User-Agent", "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/119.0 Safari/537.36")
+            .header("Cookie", "ytime=" + LocalTime.now().format(DateTimeFormatter.ofPattern("H:mm")))
+            .GET()
+            .build();
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            requests.increment();
+            bytes.add(response.body().length);
+            long[] traffic = threadTraffic.get();
+            traffic[0]++;
+            traffic[1] += response.body().length;
+            if (response.statusCode() / 100 != 2) return null;
+            return new String(response.body(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("YOPmail request failed: " + path, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching " + path, e);
+        }
+    }
+
+    /** YOPmail inboxes are addressed by the local part: "Parent.X@yopmail.com" is "parent.x". */
+    private static String login(String email) {
+        int at = email.indexOf('@');
+        return (at >= 0 ? email.substring(0, at) : email).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}